@@ -0,0 +1,44 @@
+package hello.springtx;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * JMH @AuxCounters 상태 (Scope.Thread) 보조
+ * JMH 는 스레드별 카운터를 EVENTS 는 합계로, OPERATIONS 는 합계/시간으로 보고한다.
+ */
+public final class AuxCounterSupport {
+
+    private AuxCounterSupport() {
+    }
+
+    /**
+     * 카운터 상태의 public long 필드를 모두 0 으로 (@Setup(Level.Iteration) 에서 호출)
+     */
+    public static void reset(Object counters) {
+        try {
+            for (Field field : counters.getClass().getFields()) {
+                if (field.getType() == long.class && !Modifier.isStatic(field.getModifiers())) {
+                    field.setLong(counters, 0);
+                }
+            }
+        } catch (IllegalAccessException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * 벤치마크 전체의 누적값 (executor, 락 매니저 스냅샷 등) 을 스레드별 카운터로 나눠 가져감
+     * 스레드마다 마지막 확인 이후 늘어난 만큼만 가져감 -> 스레드 합계 = 전체 증가량
+     * Scope.Benchmark 상태의 필드로 두고 @TearDown(Level.Iteration) 에서 claim
+     */
+    public static final class Delta {
+
+        private final AtomicLong last = new AtomicLong();
+
+        public long claim(long current) {
+            return current - last.getAndSet(current);
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package hello.springtx;
+
+import org.springframework.boot.Banner;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * 벤치마크용 스프링 컨텍스트
+ * application.properties 의 TRACE, DEBUG 로그는 측정값을 왜곡하므로 WARN 으로 낮춘다.
+ * 추가 설정은 "--key=value" 형태로 전달
+ */
+public final class BenchmarkContext {
+
+    private static final String[] QUIET_LOGGING = {
+            "--logging.level.root=WARN",
+            "--logging.level.org.springframework.transaction.interceptor=WARN",
+            "--logging.level.org.springframework.jdbc.datasource.DataSourceTransactionManager=WARN",
+            "--logging.level.org.springframework.orm.jpa.JpaTransactionManager=WARN",
+            "--logging.level.org.hibernate.resource.transaction=WARN",
+            "--logging.level.org.hibernate.SQL=WARN",
+            "--logging.level.hello.springtx=WARN",
+    };
+
+    private BenchmarkContext() {
+    }
+
+    public static ConfigurableApplicationContext start(String... properties) {
+        return start(new Class<?>[0], properties);
+    }
+
+    /**
+     * @param configurations 벤치마크 전용 빈 설정 (SpringtxApplication 과 함께 등록)
+     */
+    public static ConfigurableApplicationContext start(Class<?>[] configurations, String... properties) {
+        List<String> args = new ArrayList<>(Arrays.asList(QUIET_LOGGING));
+        args.addAll(Arrays.asList(properties));
+        return new SpringApplicationBuilder(SpringtxApplication.class)
+                .sources(configurations)
+                .bannerMode(Banner.Mode.OFF)
+                .run(args.toArray(new String[0]));
+    }
+}
@@ -0,0 +1,83 @@
+package hello.springtx;
+
+import hello.springtx.order.NotEnoughMoneyException;
+import hello.springtx.order.Order;
+import hello.springtx.order.OrderService;
+import hello.springtx.propagation.MemberService;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import javax.persistence.EntityManagerFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 시퀀스 할당 크기별 비교
+ * allocationSize=1  : INSERT 마다 시퀀스 호출 (기존 @GeneratedValue 와 동일한 왕복 횟수)
+ * allocationSize=50 : 50건마다 시퀀스 1회 호출
+ * statements / invocations = 호출당 JDBC 문장 수 (Hibernate Statistics)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SequenceAllocationBenchmark {
+
+    @Param({"1", "50"})
+    int allocationSize;
+
+    ConfigurableApplicationContext context;
+    MemberService memberService;
+    OrderService orderService;
+    Statistics statistics;
+
+    final AtomicLong sequence = new AtomicLong();
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Statements {
+        public long statements;
+        public long invocations;
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContext.start(
+                "--spring.jpa.properties.hibernate.generate_statistics=true",
+                "--spring.jpa.properties.springtx.id.default.allocation_size=" + allocationSize,
+                "--spring.jpa.properties.springtx.id.member_seq.allocation_size=" + allocationSize,
+                "--spring.jpa.properties.springtx.id.log_seq.allocation_size=" + allocationSize,
+                "--spring.jpa.properties.springtx.id.orders_seq.allocation_size=" + allocationSize);
+        memberService = context.getBean(MemberService.class);
+        orderService = context.getBean(OrderService.class);
+        statistics = context.getBean(EntityManagerFactory.class).unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public void joinV1(Statements counters) {
+        long before = statistics.getPrepareStatementCount();
+        memberService.joinV1("seq" + sequence.incrementAndGet());
+        counters.statements += statistics.getPrepareStatementCount() - before;
+        counters.invocations++;
+    }
+
+    @Benchmark
+    public void order(Statements counters) throws NotEnoughMoneyException {
+        Order order = new Order();
+        order.setUsername("정상");
+
+        long before = statistics.getPrepareStatementCount();
+        orderService.order(order);
+        counters.statements += statistics.getPrepareStatementCount() - before;
+        counters.invocations++;
+    }
+}
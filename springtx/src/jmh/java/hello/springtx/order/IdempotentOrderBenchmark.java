@@ -0,0 +1,65 @@
+package hello.springtx.order;
+
+import hello.springtx.BenchmarkContext;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 중복 주문 요청 비용 (이미 처리한 멱등성 키 10,000개 중 임의 선택)
+ * cache=true  : IdempotencyCache 적중 (트랜잭션, SQL 없음)
+ * cache=false : 매번 유니크 인덱스로 주문 조회
+ * firstSubmit : 새 키 (캐시 미스 + DB 조회 + 주문 트랜잭션)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(4)
+@Fork(1)
+public class IdempotentOrderBenchmark {
+
+    static final int KEYS = 10_000;
+
+    @Param({"true", "false"})
+    boolean cache;
+
+    ConfigurableApplicationContext context;
+    IdempotentOrderService idempotentOrderService;
+
+    final AtomicLong sequence = new AtomicLong();
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContext.start("--springtx.order.idempotency.max-size=" + (cache ? KEYS * 2 : 0));
+        idempotentOrderService = context.getBean(IdempotentOrderService.class);
+        for (int i = 0; i < KEYS; i++) {
+            idempotentOrderService.submit("key-" + i, newOrder());
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public OrderReceipt duplicateSubmit() {
+        return idempotentOrderService.submit("key-" + ThreadLocalRandom.current().nextInt(KEYS), newOrder());
+    }
+
+    @Benchmark
+    public OrderReceipt firstSubmit() {
+        return idempotentOrderService.submit("new-" + sequence.incrementAndGet(), newOrder());
+    }
+
+    private Order newOrder() {
+        Order order = new Order();
+        order.setUsername("정상");
+        return order;
+    }
+}
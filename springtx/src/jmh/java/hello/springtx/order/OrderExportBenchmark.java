@@ -0,0 +1,68 @@
+package hello.springtx.order;
+
+import hello.springtx.AuxCounterSupport;
+import hello.springtx.BenchmarkContext;
+import hello.springtx.order.OrderExporter.ExportReport;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * orders 행 수별 CSV 내보내기 (초당 내보내기 횟수)
+ * -prof gc 의 gc.alloc.rate.norm / 행 수 가 행 수와 무관하게 일정하면 영속성 컨텍스트에 엔티티가 쌓이지 않는 것
+ * Rows : 내보낸 행 수 (OPERATIONS -> JMH 결과에 rows/sec 로 포함)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 1, time = 5)
+@Measurement(iterations = 3, time = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class OrderExportBenchmark {
+
+    @Param({"100000", "1000000", "5000000"})
+    int rows;
+
+    ConfigurableApplicationContext context;
+    OrderExporter orderExporter;
+    Path file;
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    public static class Rows {
+        public long rows;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            AuxCounterSupport.reset(this);
+        }
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        context = BenchmarkContext.start();
+        context.getBean(JdbcTemplate.class).update("INSERT INTO orders (id, version, username, pay_status) " +
+                "SELECT -X, 0, CASE WHEN MOD(X, 100) = 0 THEN '잔고부족' ELSE '정상' END, " +
+                "CASE WHEN MOD(X, 100) = 0 THEN 1 ELSE 2 END FROM SYSTEM_RANGE(1, ?)", rows);
+        orderExporter = context.getBean(OrderExporter.class);
+        file = Files.createTempFile("orders-", ".csv");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        context.close();
+        Files.deleteIfExists(file);
+    }
+
+    @Benchmark
+    public ExportReport export(Rows counters) {
+        ExportReport report = orderExporter.exportCsv(file);
+        counters.rows += report.getRows();
+        return report;
+    }
+}
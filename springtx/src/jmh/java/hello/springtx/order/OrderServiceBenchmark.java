@@ -0,0 +1,118 @@
+package hello.springtx.order;
+
+import hello.springtx.BenchmarkContext;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * OrderService.order 분기별 비용
+ * 정상     : 커밋 (완료)
+ * 예외     : RuntimeException -> 롤백
+ * 잔고부족 : NotEnoughMoneyException -> 커밋 (대기)
+ *
+ * xxxV2 : orderV2 (예외 대신 OrderResult 반환, 롤백은 setRollbackOnly)
+ *         -prof gc 로 예외 경로의 할당량(gc.alloc.rate.norm) 비교
+ *
+ * orderAll vs orderEach : 주문 100건 (정상 80, 예외 10, 잔고부족 10)
+ *   orderEach : 주문마다 트랜잭션
+ *   orderAll  : 청크 트랜잭션 + 주문별 세이브포인트
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class OrderServiceBenchmark {
+
+    static final int BATCH = 100;
+
+    ConfigurableApplicationContext context;
+    OrderService orderService;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContext.start();
+        orderService = context.getBean(OrderService.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public void complete() throws NotEnoughMoneyException {
+        orderService.order(newOrder("정상"));
+    }
+
+    @Benchmark
+    public void runtimeException(Blackhole bh) throws NotEnoughMoneyException {
+        try {
+            orderService.order(newOrder("예외"));
+        } catch (RuntimeException e) {
+            bh.consume(e);
+        }
+    }
+
+    @Benchmark
+    public void bizException(Blackhole bh) {
+        try {
+            orderService.order(newOrder("잔고부족"));
+        } catch (NotEnoughMoneyException e) {
+            bh.consume(e);
+        }
+    }
+
+    @Benchmark
+    public OrderResult completeV2() {
+        return orderService.orderV2(newOrder("정상"));
+    }
+
+    @Benchmark
+    public OrderResult runtimeExceptionV2() {
+        return orderService.orderV2(newOrder("예외"));
+    }
+
+    @Benchmark
+    public OrderResult bizExceptionV2() {
+        return orderService.orderV2(newOrder("잔고부족"));
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public OrderResult[] orderAll() {
+        return orderService.orderAll(newBatch());
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public void orderEach(Blackhole bh) {
+        for (Order order : newBatch()) {
+            try {
+                orderService.order(order);
+            } catch (NotEnoughMoneyException | RuntimeException e) {
+                bh.consume(e);
+            }
+        }
+    }
+
+    private List<Order> newBatch() {
+        List<Order> orders = new ArrayList<>(BATCH);
+        for (int i = 0; i < BATCH; i++) {
+            orders.add(newOrder(i % 10 == 3 ? "예외" : i % 10 == 7 ? "잔고부족" : "정상"));
+        }
+        return orders;
+    }
+
+    private Order newOrder(String username) {
+        Order order = new Order();
+        order.setUsername(username);
+        return order;
+    }
+}
@@ -0,0 +1,62 @@
+package hello.springtx.order;
+
+import hello.springtx.BenchmarkContext;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * orders 행 수별 대기 주문 조회 (pay_status = WAIT, 키셋 100건)
+ * 전체 행의 1% 가 대기 주문
+ * index=true  : idx_orders_pay_status_id 범위 스캔
+ * index=false : 인덱스 삭제 후 조회 (테이블 스캔)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx8g")
+public class PendingOrderBenchmark {
+
+    @Param({"10000", "1000000", "10000000"})
+    int rows;
+
+    @Param({"true", "false"})
+    boolean index;
+
+    ConfigurableApplicationContext context;
+    OrderRepository orderRepository;
+
+    final Pageable firstPage = PageRequest.of(0, 100);
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContext.start();
+        JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+        // 시퀀스와 겹치지 않도록 음수 ID (키셋 조회는 Long.MIN_VALUE 부터)
+        jdbcTemplate.update("INSERT INTO orders (id, version, username, pay_status) " +
+                "SELECT -X, 0, CASE WHEN MOD(X, 100) = 0 THEN '잔고부족' ELSE '정상' END, " +
+                "CASE WHEN MOD(X, 100) = 0 THEN 1 ELSE 2 END FROM SYSTEM_RANGE(1, ?)", rows);
+        if (!index) {
+            jdbcTemplate.execute("DROP INDEX idx_orders_pay_status_id");
+        }
+        jdbcTemplate.execute("ANALYZE");
+        orderRepository = context.getBean(OrderRepository.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<Order> findPending() {
+        return orderRepository.findByPayStatusAndIdGreaterThanOrderByIdAsc(PayStatus.WAIT, Long.MIN_VALUE, firstPage);
+    }
+}
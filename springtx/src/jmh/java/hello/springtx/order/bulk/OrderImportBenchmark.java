@@ -0,0 +1,104 @@
+package hello.springtx.order.bulk;
+
+import hello.springtx.BenchmarkContext;
+import hello.springtx.order.Order;
+import hello.springtx.order.OrderRepository;
+import hello.springtx.order.PayStatus;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 주문 CSV 일괄 등록 (1회 실행 시간), -prof gc 로 GC 부담 비교
+ * pipeline : OrderBulkImporter (메모리 맵 파싱 + 큐 + JDBC batch 작업자 4개)
+ * saveAll  : 줄 단위 읽기 + Order 생성 + orderRepository.saveAll (1,000건마다 트랜잭션)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class OrderImportBenchmark {
+
+    static final int CHUNK = 1000;
+
+    @Param({"100000", "1000000"})
+    int rows;
+
+    @Param({"pipeline", "saveAll"})
+    String mode;
+
+    ConfigurableApplicationContext context;
+    OrderBulkImporter importer;
+    OrderRepository orderRepository;
+    Path file;
+
+    final AtomicInteger run = new AtomicInteger();
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        context = BenchmarkContext.start("--springtx.order.import.chunk-size=" + CHUNK);
+        importer = context.getBean(OrderBulkImporter.class);
+        orderRepository = context.getBean(OrderRepository.class);
+
+        file = Files.createTempFile("orders-import-", ".csv");
+        try (BufferedWriter writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            writer.write("username,payStatus\n");
+            for (int i = 0; i < rows; i++) {
+                writer.write(i % 100 == 0 ? "잔고부족,대기\n" : "정상,완료\n");
+            }
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        context.close();
+        Files.deleteIfExists(file);
+    }
+
+    @Benchmark
+    public long importOrders() throws IOException {
+        if (mode.equals("pipeline")) {
+            // 실행마다 새 importId (재개로 건너뛰지 않도록)
+            return importer.importCsv(file, "benchmark-" + run.incrementAndGet()).getRows();
+        }
+        return saveAll();
+    }
+
+    private long saveAll() throws IOException {
+        long count = 0;
+        List<Order> orders = new ArrayList<>(CHUNK);
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            reader.readLine();   // header
+            String line;
+            while ((line = reader.readLine()) != null) {
+                String[] fields = line.split(",");
+                Order order = new Order();
+                order.setUsername(fields[0]);
+                order.setPayStatus(fields[1].equals("대기") ? PayStatus.WAIT : PayStatus.COMPLETE);
+                orders.add(order);
+                if (orders.size() == CHUNK) {
+                    orderRepository.saveAll(orders);
+                    count += orders.size();
+                    orders = new ArrayList<>(CHUNK);
+                }
+            }
+        }
+        if (!orders.isEmpty()) {
+            orderRepository.saveAll(orders);
+            count += orders.size();
+        }
+        return count;
+    }
+}
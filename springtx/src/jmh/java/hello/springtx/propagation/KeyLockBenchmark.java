@@ -0,0 +1,106 @@
+package hello.springtx.propagation;
+
+import hello.springtx.AuxCounterSupport;
+import hello.springtx.BenchmarkContext;
+import hello.springtx.datasource.ConnectionPoolMetrics;
+import hello.springtx.lock.KeyLockManager;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 같은 username 동시 가입 16 스레드, 커넥션 풀 4개
+ * 연속된 16건이 같은 username -> 1건 성공, 나머지는 유니크 제약 위반
+ *
+ * lock=false : 중복 insert 가 먼저 들어간 insert 의 커밋까지 DB 락 대기 (커넥션을 잡은 채로)
+ * lock=true  : @KeyLock 으로 트랜잭션 시작 전에 대기 -> 커넥션은 실제 작업 중에만 사용
+ *
+ * Waits (JMH 결과에 포함)
+ * acquireNanos / connections : 커넥션 1개 획득 평균 시간, pending / joins : 호출 시점 평균 풀 대기 스레드 수
+ * lockWaitNanos / lockContended : 키 락 경합 1건 평균 대기 시간, lockTimeouts : 키 락 타임아웃
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(16)
+@Fork(1)
+public class KeyLockBenchmark {
+
+    @Param({"true", "false"})
+    boolean lock;
+
+    ConfigurableApplicationContext context;
+    MemberService memberService;
+    ConnectionPoolMetrics poolMetrics;
+    KeyLockManager keyLockManager;
+
+    final AtomicLong sequence = new AtomicLong();
+
+    final AuxCounterSupport.Delta lockContended = new AuxCounterSupport.Delta();
+    final AuxCounterSupport.Delta lockTimeouts = new AuxCounterSupport.Delta();
+    final AuxCounterSupport.Delta lockWaitNanos = new AuxCounterSupport.Delta();
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Waits {
+        public long joins;
+        public long connections;
+        public long acquireNanos;
+        public long pending;
+        public long lockContended;
+        public long lockTimeouts;
+        public long lockWaitNanos;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            AuxCounterSupport.reset(this);
+        }
+
+        @TearDown(Level.Iteration)
+        public void collect(KeyLockBenchmark benchmark) {
+            KeyLockManager.LockSnapshot snapshot = benchmark.keyLockManager.snapshot();
+            lockContended += benchmark.lockContended.claim(snapshot.getContended());
+            lockTimeouts += benchmark.lockTimeouts.claim(snapshot.getTimeouts());
+            lockWaitNanos += benchmark.lockWaitNanos.claim(snapshot.getWaitNanos().getSum());
+        }
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContext.start(
+                "--springtx.lock.enabled=" + lock,
+                "--spring.datasource.hikari.maximum-pool-size=4",
+                "--springtx.member.cache.max-size=0");
+        memberService = context.getBean(MemberService.class);
+        poolMetrics = context.getBean(ConnectionPoolMetrics.class);
+        keyLockManager = context.getBean(KeyLockManager.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public void joinSameUsername(Waits counters, Blackhole bh) {
+        String username = "hot" + (sequence.getAndIncrement() / 16);
+        for (ConnectionPoolMetrics.PoolSnapshot pool : poolMetrics.snapshot()) {
+            counters.pending += pool.getPending();
+        }
+        long acquireNanos = ConnectionPoolMetrics.threadAcquireNanos();
+        long connections = ConnectionPoolMetrics.threadAcquireCount();
+        try {
+            memberService.joinV1(username);
+        } catch (RuntimeException e) {
+            bh.consume(e);
+        }
+        counters.acquireNanos += ConnectionPoolMetrics.threadAcquireNanos() - acquireNanos;
+        counters.connections += ConnectionPoolMetrics.threadAcquireCount() - connections;
+        counters.joins++;
+    }
+}
@@ -0,0 +1,80 @@
+package hello.springtx.propagation;
+
+import hello.springtx.BenchmarkContext;
+import hello.springtx.propagation.journal.FsyncPolicy;
+import hello.springtx.propagation.journal.LogJournal;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.util.FileSystemUtils;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 로그 1건 저장 지연시간 분포 (SampleTime -> p99 등 백분위 출력)
+ * journalAppend : 메모리 맵 저널 append (fsync 정책별)
+ * requiresNew   : LogRepository.save (REQUIRES_NEW + em.persist + 커밋)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class LogJournalBenchmark {
+
+    @State(Scope.Benchmark)
+    public static class JournalState {
+
+        @Param({"NONE", "ALWAYS"})
+        FsyncPolicy fsync;
+
+        Path directory;
+        LogJournal journal;
+
+        @Setup(Level.Trial)
+        public void setUp() throws IOException {
+            directory = Files.createTempDirectory("log-journal-bench");
+            journal = new LogJournal(directory, 64 * 1024 * 1024, fsync);
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() throws IOException {
+            journal.close();
+            FileSystemUtils.deleteRecursively(directory);
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class RepositoryState {
+
+        ConfigurableApplicationContext context;
+        LogRepository logRepository;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            context = BenchmarkContext.start();
+            logRepository = context.getBean(LogRepository.class);
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() {
+            context.close();
+        }
+    }
+
+    final AtomicLong sequence = new AtomicLong();
+
+    @Benchmark
+    public void journalAppend(JournalState state) {
+        state.journal.append("journal" + sequence.incrementAndGet());
+    }
+
+    @Benchmark
+    public void requiresNew(RepositoryState state) {
+        state.logRepository.save(new Log("journal" + sequence.incrementAndGet()));
+    }
+}
@@ -0,0 +1,63 @@
+package hello.springtx.propagation;
+
+import hello.springtx.BenchmarkContext;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * size 명 가입 비용 비교
+ * joinV1Loop : joinV1 반복 (회원당 트랜잭션 + REQUIRES_NEW 1회)
+ * joinAll    : JDBC Batch + batch_size 단위 flush/clear
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MemberBulkBenchmark {
+
+    @Param({"100", "1000"})
+    int size;
+
+    ConfigurableApplicationContext context;
+    MemberService memberService;
+
+    final AtomicLong sequence = new AtomicLong();
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContext.start();
+        memberService = context.getBean(MemberService.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public void joinV1Loop() {
+        for (String username : usernames()) {
+            memberService.joinV1(username);
+        }
+    }
+
+    @Benchmark
+    public void joinAll() {
+        memberService.joinAll(usernames());
+    }
+
+    private List<String> usernames() {
+        List<String> usernames = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            usernames.add("bulk" + sequence.incrementAndGet());
+        }
+        return usernames;
+    }
+}
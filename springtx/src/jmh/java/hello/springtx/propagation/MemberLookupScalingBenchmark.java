@@ -0,0 +1,63 @@
+package hello.springtx.propagation;
+
+import hello.springtx.BenchmarkContext;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * member 행 수별 username 조회 비용 (유니크 인덱스 + 블룸 필터)
+ * findExisting  : 인덱스 조회 (있는 회원)
+ * findMissing   : 인덱스 조회 (없는 회원)
+ * existsMissing : 블룸 필터에서 종료 (DB 조회 X)
+ * 캐시는 사용하지 않음 (springtx.member.cache.max-size=0)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx8g")
+public class MemberLookupScalingBenchmark {
+
+    @Param({"10000", "1000000", "10000000"})
+    int rows;
+
+    ConfigurableApplicationContext context;
+    MemberRepository memberRepository;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContext.start(
+                "--springtx.member.cache.max-size=0",
+                "--springtx.member.bloom.expected-insertions=" + rows);
+        // 시퀀스와 겹치지 않도록 음수 ID
+        context.getBean(JdbcTemplate.class)
+                .update("INSERT INTO member (id, username) SELECT -X, 'user' || X FROM SYSTEM_RANGE(1, ?)", rows);
+        context.getBean(UsernameBloomFilterLoader.class).load();
+        memberRepository = context.getBean(MemberRepository.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public boolean findExisting() {
+        return memberRepository.find("user" + (ThreadLocalRandom.current().nextInt(rows) + 1)).isPresent();
+    }
+
+    @Benchmark
+    public boolean findMissing() {
+        return memberRepository.find("absent" + ThreadLocalRandom.current().nextInt(rows)).isPresent();
+    }
+
+    @Benchmark
+    public boolean existsMissing() {
+        return memberRepository.exists("absent" + ThreadLocalRandom.current().nextInt(rows));
+    }
+}
@@ -0,0 +1,74 @@
+package hello.springtx.propagation;
+
+import hello.springtx.BenchmarkContext;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.persistence.EntityManager;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * username 단건 조회 비용 비교 (-prof gc 의 gc.alloc.rate.norm 으로 조회당 할당량 비교)
+ * adhocQuery : 호출마다 JPQL 문자열로 createQuery + 전체 결과 List (기존 find)
+ * namedQuery : NamedQuery + setMaxResults(1)
+ * exists     : id 1건만 조회
+ * view       : 생성자 프로젝션 (영속성 컨텍스트 X)
+ * 캐시는 사용하지 않음 (springtx.member.cache.max-size=0)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MemberQueryBenchmark {
+
+    static final int ROWS = 10_000;
+
+    ConfigurableApplicationContext context;
+    EntityManager em;
+    MemberRepository memberRepository;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContext.start("--springtx.member.cache.max-size=0");
+        context.getBean(JdbcTemplate.class)
+                .update("INSERT INTO member (id, username) SELECT -X, 'user' || X FROM SYSTEM_RANGE(1, ?)", ROWS);
+        context.getBean(UsernameBloomFilterLoader.class).load();
+        em = context.getBean(EntityManager.class);
+        memberRepository = context.getBean(MemberRepository.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public boolean adhocQuery() {
+        return em.createQuery("SELECT m FROM Member m WHERE m.username = :username", Member.class)
+                .setParameter("username", username())
+                .getResultList().stream().findAny().isPresent();
+    }
+
+    @Benchmark
+    public boolean namedQuery() {
+        return memberRepository.find(username()).isPresent();
+    }
+
+    @Benchmark
+    public boolean exists() {
+        return memberRepository.exists(username());
+    }
+
+    @Benchmark
+    public boolean view() {
+        return memberRepository.findView(username()).isPresent();
+    }
+
+    private static String username() {
+        return "user" + (ThreadLocalRandom.current().nextInt(ROWS) + 1);
+    }
+}
@@ -0,0 +1,87 @@
+package hello.springtx.propagation;
+
+import hello.springtx.BenchmarkContext;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import javax.persistence.EntityManagerFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * MemberService 전파 경로
+ * joinV1         : member(REQUIRED) + log(REQUIRES_NEW) 커밋
+ * joinV1_logFail : log 예외 -> 전체 롤백
+ * joinV2_logFail : log 예외 복구 -> member 커밋, log 롤백
+ *
+ * logMode : REQUIRES_NEW(별도 커넥션) / NESTED(세이브포인트)
+ * connections / invocations = 요청당 커넥션 획득 수 (Hibernate Statistics)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MemberServiceBenchmark {
+
+    @Param({"REQUIRES_NEW", "NESTED"})
+    String logMode;
+
+    ConfigurableApplicationContext context;
+    MemberService memberService;
+    Statistics statistics;
+
+    final AtomicLong sequence = new AtomicLong();
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Connections {
+        public long connections;
+        public long invocations;
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContext.start(
+                "--springtx.log.mode=" + logMode,
+                "--spring.jpa.properties.hibernate.generate_statistics=true");
+        memberService = context.getBean(MemberService.class);
+        statistics = context.getBean(EntityManagerFactory.class).unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public void joinV1(Connections counters) {
+        long before = statistics.getConnectCount();
+        memberService.joinV1("member" + sequence.incrementAndGet());
+        counters.connections += statistics.getConnectCount() - before;
+        counters.invocations++;
+    }
+
+    @Benchmark
+    public void joinV2() {
+        memberService.joinV2("member" + sequence.incrementAndGet());
+    }
+
+    @Benchmark
+    public void joinV1_logFail(Blackhole bh) {
+        try {
+            memberService.joinV1("로그예외" + sequence.incrementAndGet());
+        } catch (RuntimeException e) {
+            bh.consume(e);
+        }
+    }
+
+    @Benchmark
+    public void joinV2_logFail() {
+        memberService.joinV2("로그예외" + sequence.incrementAndGet());
+    }
+}
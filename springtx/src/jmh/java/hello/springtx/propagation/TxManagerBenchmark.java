@@ -0,0 +1,115 @@
+package hello.springtx.propagation;
+
+import hello.springtx.BenchmarkContext;
+import hello.springtx.metrics.ObservedTransactionManager;
+import hello.springtx.metrics.TransactionListener;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.UnexpectedRollbackException;
+import org.springframework.transaction.interceptor.DefaultTransactionAttribute;
+
+import javax.sql.DataSource;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * BasicTxTest 의 getTransaction / commit 패턴
+ * jdbc : DataSourceTransactionManager (BasicTxTest 설정)
+ * jpa  : 스프링 부트 기본 JpaTransactionManager
+ * txMetrics : ObservedTransactionManager 사용 여부 (지표 수집 오버헤드 확인, jdbc 도 같은 리스너로 감쌈)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TxManagerBenchmark {
+
+    @Param({"jdbc", "jpa"})
+    String txManagerType;
+
+    @Param({"true", "false"})
+    String txMetrics;
+
+    ConfigurableApplicationContext context;
+    PlatformTransactionManager txManager;
+
+    DefaultTransactionAttribute required = new DefaultTransactionAttribute();
+    DefaultTransactionAttribute requiresNew = new DefaultTransactionAttribute(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContext.start("--springtx.tx.metrics.enabled=" + txMetrics);
+        if (txManagerType.equals("jdbc")) {
+            DataSourceTransactionManager jdbc = new DataSourceTransactionManager(context.getBean(DataSource.class));
+            txManager = Boolean.parseBoolean(txMetrics)
+                    ? new ObservedTransactionManager(jdbc, context.getBeanProvider(TransactionListener.class)
+                            .orderedStream().collect(Collectors.toList()))
+                    : jdbc;
+        } else {
+            txManager = context.getBean(PlatformTransactionManager.class);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public void commit() {
+        TransactionStatus status = txManager.getTransaction(required);
+        txManager.commit(status);
+    }
+
+    @Benchmark
+    public void rollback() {
+        TransactionStatus status = txManager.getTransaction(required);
+        txManager.rollback(status);
+    }
+
+    // REQUIRED : 내부 트랜잭션은 외부 물리 트랜잭션에 참여
+    @Benchmark
+    public void innerCommit() {
+        TransactionStatus outer = txManager.getTransaction(required);
+        TransactionStatus inner = txManager.getTransaction(required);
+        txManager.commit(inner);
+        txManager.commit(outer);
+    }
+
+    // REQUIRED : 내부 롤백 -> rollbackOnly -> 외부 커밋 시 UnexpectedRollbackException
+    @Benchmark
+    public void innerRollback(Blackhole bh) {
+        TransactionStatus outer = txManager.getTransaction(required);
+        TransactionStatus inner = txManager.getTransaction(required);
+        txManager.rollback(inner);
+        try {
+            txManager.commit(outer);
+        } catch (UnexpectedRollbackException e) {
+            bh.consume(e);
+        }
+    }
+
+    // REQUIRES_NEW : 외부 트랜잭션 보류 후 새로운 커넥션으로 물리 트랜잭션 생성
+    @Benchmark
+    public void requiresNewCommit() {
+        TransactionStatus outer = txManager.getTransaction(required);
+        TransactionStatus inner = txManager.getTransaction(requiresNew);
+        txManager.commit(inner);
+        txManager.commit(outer);
+    }
+
+    @Benchmark
+    public void requiresNewInnerRollback() {
+        TransactionStatus outer = txManager.getTransaction(required);
+        TransactionStatus inner = txManager.getTransaction(requiresNew);
+        txManager.rollback(inner);
+        txManager.commit(outer);
+    }
+}
@@ -0,0 +1,101 @@
+package hello.springtx.tx;
+
+import hello.springtx.AuxCounterSupport;
+import hello.springtx.BenchmarkContext;
+import hello.springtx.propagation.Member;
+import hello.springtx.propagation.MemberRepository;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 동시 호출자 16명의 회원 저장 : 호출마다 커밋 vs 그룹 커밋
+ * Throughput(처리량) + SampleTime(호출자 지연시간 분포) -> config 별 처리량/지연시간 곡선
+ * config = direct | group-{maxBatchSize}-{maxLinger}
+ * H2 메모리 DB 는 fsync 가 없으므로 파일 DB 보다 그룹 커밋 이득이 작게 측정됨
+ * GroupCommits : 물리 커밋 수, 재시도 수 (joins / commits = 평균 배치 크기, JMH 결과에 포함)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(16)
+@Fork(1)
+public class GroupCommitBenchmark {
+
+    @Param({"direct", "group-8-0ms", "group-64-1ms", "group-64-5ms", "group-256-5ms"})
+    String config;
+
+    ConfigurableApplicationContext context;
+    MemberRepository memberRepository;
+    GroupCommitExecutor executor;
+
+    final AtomicLong sequence = new AtomicLong();
+
+    final AuxCounterSupport.Delta commits = new AuxCounterSupport.Delta();
+    final AuxCounterSupport.Delta retries = new AuxCounterSupport.Delta();
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class GroupCommits {
+        public long joins;
+        public long commits;
+        public long retries;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            AuxCounterSupport.reset(this);
+        }
+
+        @TearDown(Level.Iteration)
+        public void collect(GroupCommitBenchmark benchmark) {
+            if (benchmark.executor == null) {
+                commits = joins;    // direct : 호출마다 커밋
+                return;
+            }
+            GroupCommitExecutor.GroupCommitSnapshot snapshot = benchmark.executor.snapshot();
+            commits += benchmark.commits.claim(snapshot.getCommits());
+            retries += benchmark.retries.claim(snapshot.getRetries());
+        }
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        if (config.equals("direct")) {
+            context = BenchmarkContext.start();
+        } else {
+            String[] parts = config.split("-");
+            context = BenchmarkContext.start(
+                    "--springtx.tx.group-commit.enabled=true",
+                    "--springtx.tx.group-commit.max-batch-size=" + parts[1],
+                    "--springtx.tx.group-commit.max-linger=" + parts[2]);
+            executor = context.getBean(GroupCommitExecutor.class);
+        }
+        memberRepository = context.getBean(MemberRepository.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Long join(GroupCommits counters) {
+        counters.joins++;
+        String username = "group" + sequence.incrementAndGet();
+        if (executor == null) {
+            Member member = new Member(username);
+            memberRepository.save(member);
+            return member.getId();
+        }
+        // 다시 실행될 수 있으므로 엔티티는 작업 안에서 생성
+        return executor.execute(() -> {
+            Member member = new Member(username);
+            memberRepository.save(member);
+            return member.getId();
+        });
+    }
+}
@@ -0,0 +1,91 @@
+package hello.springtx.tx;
+
+import hello.springtx.BenchmarkContext;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @Transactional 메서드 호출 비용 : CGLIB 프록시 vs AspectJ 위빙
+ * ./gradlew jmh -PjmhIncludes=TransactionalCallBenchmark           (proxy)
+ * ./gradlew jmh -PjmhIncludes=TransactionalCallBenchmark -Paspectj (aspectj)
+ *
+ * physical      : 외부 호출 1회 = 물리 트랜잭션 시작/커밋
+ * participating : 트랜잭션 안에서 @Transactional 메서드 호출 (호출 1회당 비용)
+ *                 proxy 는 self(프록시)를 거쳐야 트랜잭션 적용, aspectj 는 self 가 this
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TransactionalCallBenchmark {
+
+    static final int CALLS = 100;
+
+    ConfigurableApplicationContext context;
+    TxCallService service;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContext.start(new Class<?>[]{TxCallConfig.class});
+        service = context.getBean(TxCallService.class);
+        // 프록시 모드면 대상 객체에 프록시를 주입
+        service.setSelf(service);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public int physical() {
+        return service.inner(1);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(CALLS)
+    public long participating() {
+        return service.outer(CALLS);
+    }
+
+
+    @Configuration
+    static class TxCallConfig {
+
+        @Bean
+        TxCallService txCallService() {
+            return new TxCallService();
+        }
+    }
+
+
+    static class TxCallService {
+
+        private TxCallService self;
+
+        public void setSelf(TxCallService self) {
+            this.self = self;
+        }
+
+        @Transactional
+        public long outer(int calls) {
+            long sum = 0;
+            for (int i = 0; i < calls; i++) {
+                sum += self.inner(i);
+            }
+            return sum;
+        }
+
+        @Transactional
+        public int inner(int i) {
+            return i;
+        }
+    }
+}
@@ -0,0 +1,127 @@
+package hello.springtx.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.IMetricsTracker;
+import com.zaxxer.hikari.metrics.MetricsTrackerFactory;
+import com.zaxxer.hikari.metrics.PoolStats;
+import hello.springtx.metrics.Histogram;
+import hello.springtx.metrics.jfr.ConnectionCheckoutEvent;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.ToString;
+import org.springframework.beans.BeansException;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 커넥션 풀별 지표 : active, idle, pending threads, 커넥션 획득 시간(ns) 히스토그램
+ * 커넥션 획득 시 JFR ConnectionCheckoutEvent 기록
+ * HikariDataSource 빈은 초기화 전에 자동 등록, 직접 만든 풀은 setMetricsTrackerFactory(this)
+ */
+@Component
+public class ConnectionPoolMetrics implements MetricsTrackerFactory, BeanPostProcessor {
+
+    // 스레드별 누적 커넥션 획득 {시간(ns), 횟수} : 호출 전후 차이로 구간별 획득 시간 측정
+    private static final ThreadLocal<long[]> THREAD_ACQUIRE = ThreadLocal.withInitial(() -> new long[2]);
+
+    private final Map<String, PoolMetrics> pools = new ConcurrentHashMap<>();
+
+    /**
+     * 현재 스레드가 지금까지 커넥션 획득에 사용한 시간(ns)
+     */
+    public static long threadAcquireNanos() {
+        return THREAD_ACQUIRE.get()[0];
+    }
+
+    /**
+     * 현재 스레드가 지금까지 획득한 커넥션 수
+     */
+    public static long threadAcquireCount() {
+        return THREAD_ACQUIRE.get()[1];
+    }
+
+    @Override
+    public IMetricsTracker create(String poolName, PoolStats poolStats) {
+        PoolMetrics metrics = new PoolMetrics(poolName, poolStats);
+        pools.put(poolName, metrics);
+        return metrics;
+    }
+
+    @Override
+    public Object postProcessBeforeInitialization(Object bean, String beanName) throws BeansException {
+        if (bean instanceof HikariDataSource) {
+            HikariDataSource dataSource = (HikariDataSource) bean;
+            if (dataSource.getMetricsTrackerFactory() == null) {
+                dataSource.setMetricsTrackerFactory(this);
+            }
+        }
+        return bean;
+    }
+
+    public List<PoolSnapshot> snapshot() {
+        List<PoolSnapshot> snapshots = new ArrayList<>();
+        for (PoolMetrics metrics : pools.values()) {
+            snapshots.add(metrics.snapshot());
+        }
+        return snapshots;
+    }
+
+    public PoolSnapshot snapshot(String poolName) {
+        PoolMetrics metrics = pools.get(poolName);
+        return metrics == null ? null : metrics.snapshot();
+    }
+
+
+    @RequiredArgsConstructor
+    private static class PoolMetrics implements IMetricsTracker {
+
+        private final String poolName;
+        private final PoolStats poolStats;
+        private final Histogram acquireNanos = new Histogram();
+        private final LongAdder timeouts = new LongAdder();
+
+        @Override
+        public void recordConnectionAcquiredNanos(long elapsedAcquiredNanos) {
+            acquireNanos.record(elapsedAcquiredNanos);
+            long[] thread = THREAD_ACQUIRE.get();
+            thread[0] += elapsedAcquiredNanos;
+            thread[1]++;
+            ConnectionCheckoutEvent.emit(poolName, elapsedAcquiredNanos);
+        }
+
+        @Override
+        public void recordConnectionTimeout() {
+            timeouts.increment();
+        }
+
+        PoolSnapshot snapshot() {
+            return new PoolSnapshot(poolName,
+                    poolStats.getActiveConnections(),
+                    poolStats.getIdleConnections(),
+                    poolStats.getPendingThreads(),
+                    poolStats.getMaxConnections(),
+                    timeouts.sum(),
+                    acquireNanos.snapshot());
+        }
+    }
+
+
+    @Getter
+    @ToString
+    @RequiredArgsConstructor
+    public static class PoolSnapshot {
+        private final String poolName;
+        private final int active;
+        private final int idle;
+        private final int pending;
+        private final int max;
+        private final long timeouts;
+        private final Histogram.Snapshot acquireNanos;
+    }
+}
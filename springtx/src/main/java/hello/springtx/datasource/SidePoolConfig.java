@@ -0,0 +1,60 @@
+package hello.springtx.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import javax.sql.DataSource;
+
+/**
+ * springtx.datasource.side-pool.enabled=true
+ * main 풀 : spring.datasource.hikari.*
+ * side 풀 : springtx.datasource.side-pool.hikari.* (@SideTransaction 전용, 기본 최대 2개)
+ * 두 풀 모두 spring.datasource 의 같은 DB 에 연결
+ *
+ * 트랜잭션 매니저는 별도로 두지 않고 기존 JpaTransactionManager 를 그대로 사용
+ * - LogRepository 는 공유 EntityManager(EntityManagerFactory 1개)로 저장 -> side 전용 매니저를 두려면
+ *   EntityManagerFactory, 영속성 유닛을 하나 더 만들고 Log 엔티티/리포지토리를 분리해야 함
+ * - 교착 상태의 원인은 같은 풀에서 두 번째 커넥션을 기다리는 것이므로,
+ *   REQUIRES_NEW 트랜잭션이 시작할 때 획득하는 물리 커넥션만 side 풀로 라우팅해도 충분
+ * - 트랜잭션 경계, 동기화, 지표(ObservedTransactionManager)가 main 과 동일하게 적용됨
+ */
+@Slf4j
+@Configuration
+@ConditionalOnProperty(name = "springtx.datasource.side-pool.enabled", havingValue = "true")
+public class SidePoolConfig {
+
+    @Bean
+    public SidePoolRoutingDataSource dataSource(DataSourceProperties properties, Environment environment,
+                                                ConnectionPoolMetrics poolMetrics) {
+        Binder binder = Binder.get(environment);
+
+        HikariDataSource main = createPool(properties, poolMetrics, SidePoolRoutingDataSource.MAIN);
+        binder.bind("spring.datasource.hikari", Bindable.ofInstance(main));
+
+        HikariDataSource side = createPool(properties, poolMetrics, SidePoolRoutingDataSource.SIDE);
+        side.setMaximumPoolSize(2);
+        binder.bind("springtx.datasource.side-pool.hikari", Bindable.ofInstance(side));
+
+        log.info("main pool size={}, side pool size={}", main.getMaximumPoolSize(), side.getMaximumPoolSize());
+        return new SidePoolRoutingDataSource(main, side);
+    }
+
+    @Bean
+    public SideTransactionAspect sideTransactionAspect() {
+        return new SideTransactionAspect();
+    }
+
+    private HikariDataSource createPool(DataSourceProperties properties, ConnectionPoolMetrics poolMetrics, String poolName) {
+        HikariDataSource pool = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        pool.setMetricsTrackerFactory(poolMetrics);
+        pool.setPoolName(poolName);
+        return pool;
+    }
+}
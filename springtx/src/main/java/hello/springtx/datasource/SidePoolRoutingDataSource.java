@@ -0,0 +1,56 @@
+package hello.springtx.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+import java.io.Closeable;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * @SideTransaction 실행 중이면 side 풀, 아니면 main 풀에서 커넥션 획득
+ */
+public class SidePoolRoutingDataSource extends AbstractRoutingDataSource implements Closeable {
+
+    public static final String MAIN = "main";
+    public static final String SIDE = "side";
+
+    private static final ThreadLocal<Boolean> sidePool = new ThreadLocal<>();
+
+    private final HikariDataSource main;
+    private final HikariDataSource side;
+
+    public SidePoolRoutingDataSource(HikariDataSource main, HikariDataSource side) {
+        this.main = main;
+        this.side = side;
+
+        Map<Object, Object> targetDataSources = new HashMap<>();
+        targetDataSources.put(MAIN, main);
+        targetDataSources.put(SIDE, side);
+        setTargetDataSources(targetDataSources);
+        setDefaultTargetDataSource(main);
+    }
+
+    static boolean enterSidePool() {
+        boolean previous = Boolean.TRUE.equals(sidePool.get());
+        sidePool.set(Boolean.TRUE);
+        return previous;
+    }
+
+    static void exitSidePool(boolean previous) {
+        if (!previous) {
+            sidePool.remove();
+        }
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        return Boolean.TRUE.equals(sidePool.get()) ? SIDE : MAIN;
+    }
+
+    @Override
+    public void close() {
+        side.close();
+        main.close();
+    }
+}
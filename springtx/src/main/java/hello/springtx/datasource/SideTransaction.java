@@ -0,0 +1,16 @@
+package hello.springtx.datasource;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * REQUIRES_NEW 등 외부 트랜잭션과 별개로 커넥션을 잡는 메서드
+ * springtx.datasource.side-pool.enabled=true 이면 별도 커넥션 풀(side)에서 커넥션 획득
+ * -> 외부 커넥션을 잡은 채 main 풀을 다시 기다리는 교착 상태 방지
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface SideTransaction {
+}
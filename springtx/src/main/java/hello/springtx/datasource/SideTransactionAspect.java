@@ -0,0 +1,26 @@
+package hello.springtx.datasource;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+
+/**
+ * 트랜잭션 AOP(LOWEST_PRECEDENCE) 보다 먼저 실행
+ * -> REQUIRES_NEW 트랜잭션 시작 시점의 커넥션 획득이 side 풀로 라우팅
+ */
+@Aspect
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class SideTransactionAspect {
+
+    @Around("@annotation(hello.springtx.datasource.SideTransaction)")
+    public Object routeToSidePool(ProceedingJoinPoint joinPoint) throws Throwable {
+        boolean previous = SidePoolRoutingDataSource.enterSidePool();
+        try {
+            return joinPoint.proceed();
+        } finally {
+            SidePoolRoutingDataSource.exitSidePool(previous);
+        }
+    }
+}
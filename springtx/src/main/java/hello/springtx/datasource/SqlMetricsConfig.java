@@ -0,0 +1,42 @@
+package hello.springtx.datasource;
+
+import hello.springtx.metrics.SqlMetrics;
+import org.springframework.beans.BeansException;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+/**
+ * DataSource 빈을 StatementTimingDataSource 로 감쌈
+ * SQL 실행 수는 항상 측정 -> 트랜잭션당 SQL 수 (TransactionStats, TransactionTree)
+ * SQL 실행 시간 (SqlMetrics) 은 springtx.sql.metrics.enabled=false 로 비활성화
+ */
+@Configuration
+public class SqlMetricsConfig {
+
+    @Bean
+    @ConditionalOnProperty(name = "springtx.sql.metrics.enabled", havingValue = "true", matchIfMissing = true)
+    public SqlMetrics sqlMetrics(@Value("${springtx.sql.slow-threshold:100ms}") Duration slowThreshold,
+                                 @Value("${springtx.sql.max-shapes:500}") int maxShapes) {
+        return new SqlMetrics(slowThreshold, maxShapes);
+    }
+
+    @Bean
+    public static BeanPostProcessor statementTimingDataSourcePostProcessor(ObjectProvider<SqlMetrics> sqlMetrics) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) throws BeansException {
+                if (bean instanceof DataSource && !(bean instanceof StatementTimingDataSource)) {
+                    return new StatementTimingDataSource((DataSource) bean, sqlMetrics.getIfAvailable());
+                }
+                return bean;
+            }
+        };
+    }
+}
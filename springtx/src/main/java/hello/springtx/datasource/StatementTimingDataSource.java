@@ -0,0 +1,158 @@
+package hello.springtx.datasource;
+
+import hello.springtx.metrics.SqlMetrics;
+import hello.springtx.metrics.SqlStatementCounter;
+import org.springframework.lang.Nullable;
+import org.springframework.jdbc.datasource.ConnectionProxy;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.io.Closeable;
+import java.io.IOException;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * Connection / Statement 프록시로 SQL 실행 수 (SqlStatementCounter), 실행 시간 측정 (SqlMetrics)
+ * execute, executeQuery, executeUpdate, executeBatch 1회 = SQL 1건 (DB 왕복 기준)
+ * sqlMetrics 가 null 이면 실행 수만 측정
+ */
+public class StatementTimingDataSource extends DelegatingDataSource implements Closeable {
+
+    @Nullable
+    private final SqlMetrics sqlMetrics;
+
+    public StatementTimingDataSource(DataSource targetDataSource, @Nullable SqlMetrics sqlMetrics) {
+        super(targetDataSource);
+        this.sqlMetrics = sqlMetrics;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return proxy(super.getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return proxy(super.getConnection(username, password));
+    }
+
+    /**
+     * 커넥션 풀 종료 (destroy 메서드 추론은 감싼 빈 기준)
+     */
+    @Override
+    public void close() throws IOException {
+        DataSource target = getTargetDataSource();
+        if (target instanceof Closeable) {
+            ((Closeable) target).close();
+        }
+    }
+
+    private Connection proxy(Connection connection) {
+        return (Connection) Proxy.newProxyInstance(ConnectionProxy.class.getClassLoader(),
+                new Class<?>[]{ConnectionProxy.class}, new ConnectionHandler(connection));
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getTargetException();
+        }
+    }
+
+
+    private class ConnectionHandler implements InvocationHandler {
+
+        private final Connection target;
+
+        ConnectionHandler(Connection target) {
+            this.target = target;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "getTargetConnection":
+                    return target;
+                case "prepareStatement":
+                    return statement(proxy, StatementTimingDataSource.invoke(target, method, args),
+                            PreparedStatement.class, (String) args[0]);
+                case "prepareCall":
+                    return statement(proxy, StatementTimingDataSource.invoke(target, method, args),
+                            CallableStatement.class, (String) args[0]);
+                case "createStatement":
+                    return statement(proxy, StatementTimingDataSource.invoke(target, method, args),
+                            Statement.class, null);
+                default:
+                    return StatementTimingDataSource.invoke(target, method, args);
+            }
+        }
+
+        private Object statement(Object connection, Object statement, Class<? extends Statement> type, String sql) {
+            return Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type},
+                    new StatementHandler((Connection) connection, (Statement) statement, sql));
+        }
+    }
+
+
+    private class StatementHandler implements InvocationHandler {
+
+        private final Connection connection;
+        private final Statement target;
+        private String sql;
+
+        StatementHandler(Connection connection, Statement target, String sql) {
+            this.connection = connection;
+            this.target = target;
+            this.sql = sql;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+            switch (name) {
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "getConnection":
+                    return connection;
+                case "addBatch":
+                    // Statement.addBatch(sql)
+                    if (args != null && args.length == 1) {
+                        sql = (String) args[0];
+                    }
+                    return StatementTimingDataSource.invoke(target, method, args);
+                default:
+                    if (!name.startsWith("execute")) {
+                        return StatementTimingDataSource.invoke(target, method, args);
+                    }
+            }
+
+            SqlStatementCounter.increment();
+            if (sqlMetrics == null) {
+                return StatementTimingDataSource.invoke(target, method, args);
+            }
+            // Statement.execute(sql, ...) 는 인자의 SQL
+            String executed = args != null && args.length > 0 && args[0] instanceof String ? (String) args[0] : sql;
+            long start = System.nanoTime();
+            try {
+                return StatementTimingDataSource.invoke(target, method, args);
+            } finally {
+                sqlMetrics.record(executed, System.nanoTime() - start);
+            }
+        }
+    }
+}
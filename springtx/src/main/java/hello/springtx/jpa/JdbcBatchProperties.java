@@ -0,0 +1,20 @@
+package hello.springtx.jpa;
+
+import lombok.Getter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Hibernate JDBC Batch 크기 (spring.jpa.properties.hibernate.jdbc.batch_size)
+ * 일괄 저장 시 flush / clear, 청크 크기를 Hibernate 배치 크기에 맞출 때 사용
+ */
+@Getter
+@Component
+public class JdbcBatchProperties {
+
+    private final int batchSize;
+
+    public JdbcBatchProperties(@Value("${spring.jpa.properties.hibernate.jdbc.batch_size:50}") int batchSize) {
+        this.batchSize = batchSize;
+    }
+}
@@ -0,0 +1,37 @@
+package hello.springtx.jpa;
+
+import org.springframework.beans.BeansException;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.transaction.PlatformTransactionManagerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.orm.jpa.AbstractEntityManagerFactoryBean;
+import org.springframework.orm.jpa.JpaTransactionManager;
+
+/**
+ * JpaTransactionManager + NESTED(세이브포인트) 설정
+ * 1. EntityManagerFactory 의 JpaDialect 를 SavepointHibernateJpaDialect 로 교체
+ *    (JpaTransactionManager 는 EntityManagerFactory 의 JpaDialect 를 사용)
+ * 2. JpaTransactionManager 의 nestedTransactionAllowed 활성화 (기본값 false)
+ */
+@Configuration
+public class JpaSavepointConfig {
+
+    @Bean
+    public static BeanPostProcessor savepointJpaDialectPostProcessor() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessBeforeInitialization(Object bean, String beanName) throws BeansException {
+                if (bean instanceof AbstractEntityManagerFactoryBean) {
+                    ((AbstractEntityManagerFactoryBean) bean).setJpaDialect(new SavepointHibernateJpaDialect());
+                }
+                return bean;
+            }
+        };
+    }
+
+    @Bean
+    public PlatformTransactionManagerCustomizer<JpaTransactionManager> nestedTransactionCustomizer() {
+        return transactionManager -> transactionManager.setNestedTransactionAllowed(true);
+    }
+}
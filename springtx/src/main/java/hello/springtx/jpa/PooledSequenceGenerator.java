@@ -0,0 +1,41 @@
+package hello.springtx.jpa;
+
+import org.hibernate.MappingException;
+import org.hibernate.engine.config.spi.ConfigurationService;
+import org.hibernate.id.enhanced.SequenceStyleGenerator;
+import org.hibernate.id.enhanced.StandardOptimizerDescriptor;
+import org.hibernate.internal.util.config.ConfigurationHelper;
+import org.hibernate.service.ServiceRegistry;
+import org.hibernate.type.Type;
+
+import java.util.Map;
+import java.util.Properties;
+
+/**
+ * pooled-lo 시퀀스 생성기
+ * 시퀀스 1회 호출로 allocation_size 개의 ID 를 메모리에서 할당 (INSERT 마다 시퀀스 호출 X)
+ *
+ * 엔티티별 할당 크기 : spring.jpa.properties.springtx.id.{sequence_name}.allocation_size
+ * 기본 할당 크기     : spring.jpa.properties.springtx.id.default.allocation_size (기본 50)
+ * DDL 의 "increment by" 값도 할당 크기로 생성된다.
+ */
+public class PooledSequenceGenerator extends SequenceStyleGenerator {
+
+    public static final String STRATEGY = "hello.springtx.jpa.PooledSequenceGenerator";
+
+    private static final String PREFIX = "springtx.id.";
+    private static final int DEFAULT_ALLOCATION_SIZE = 50;
+
+    @Override
+    public void configure(Type type, Properties params, ServiceRegistry serviceRegistry) throws MappingException {
+        Map<?, ?> settings = serviceRegistry.getService(ConfigurationService.class).getSettings();
+        String sequenceName = params.getProperty(SEQUENCE_PARAM);
+
+        int defaultSize = ConfigurationHelper.getInt(PREFIX + "default.allocation_size", settings, DEFAULT_ALLOCATION_SIZE);
+        int allocationSize = ConfigurationHelper.getInt(PREFIX + sequenceName + ".allocation_size", settings, defaultSize);
+
+        params.setProperty(INCREMENT_PARAM, String.valueOf(allocationSize));
+        params.setProperty(OPT_PARAM, StandardOptimizerDescriptor.POOLED_LO.getExternalName());
+        super.configure(type, params, serviceRegistry);
+    }
+}
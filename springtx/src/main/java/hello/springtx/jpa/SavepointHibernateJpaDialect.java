@@ -0,0 +1,142 @@
+package hello.springtx.jpa;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.engine.spi.EntityEntry;
+import org.hibernate.engine.spi.PersistenceContext;
+import org.hibernate.engine.spi.SessionImplementor;
+import org.hibernate.engine.spi.Status;
+import org.hibernate.persister.entity.EntityPersister;
+import org.springframework.lang.Nullable;
+import org.springframework.orm.jpa.vendor.HibernateJpaDialect;
+import org.springframework.transaction.CannotCreateTransactionException;
+import org.springframework.transaction.SavepointManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionException;
+import org.springframework.transaction.TransactionSystemException;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceException;
+import java.sql.SQLException;
+import java.sql.Savepoint;
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+/**
+ * JpaTransactionManager 에서 NESTED 전파를 사용하기 위한 JpaDialect
+ * 기본 HibernateJpaDialect 는 세이브포인트를 지원하지 않음 (NestedTransactionNotSupportedException)
+ *
+ * 세이브포인트 생성 : flush 후 JDBC 세이브포인트 생성 (이전 변경 내용은 롤백 대상 X)
+ *                   영속 엔티티와 loadedState(스냅샷) 기록
+ * 세이브포인트 롤백 : JDBC 롤백 -> flush 되지 않은 액션(insert/update/delete) 제거 -> 영속성 컨텍스트를 세이브포인트 시점으로 맞춤
+ *   - 세이브포인트 이후 영속 상태가 된 엔티티 : detach (준영속)
+ *   - 세이브포인트 이후 변경한 기존 엔티티 (flush 여부 무관) : refresh (세이브포인트 시점 DB 값으로 되돌림)
+ *   - 변경하지 않은 기존 엔티티 : 영속 상태 유지 -> 롤백 이후 변경도 외부 트랜잭션 커밋 시 반영
+ *   - 세이브포인트 이후 remove 한 기존 엔티티 : detach (DB 행은 남음, 다시 조회해서 사용)
+ *   컬렉션만 변경한 경우는 감지하지 않음 (이 프로젝트 엔티티에는 컬렉션 매핑 없음)
+ *
+ * 주의 : Hibernate 가 던진 예외(flush 실패 등)는 JPA 트랜잭션 자체를 rollbackOnly 로 만든다.
+ *       세이브포인트로 복구 가능한 것은 애플리케이션 예외뿐이다.
+ */
+public class SavepointHibernateJpaDialect extends HibernateJpaDialect {
+
+    @Override
+    public Object beginTransaction(EntityManager entityManager, TransactionDefinition definition)
+            throws PersistenceException, SQLException, TransactionException {
+        Object transactionData = super.beginTransaction(entityManager, definition);
+        return new SavepointTransactionData(entityManager, transactionData);
+    }
+
+    @Override
+    public void cleanupTransaction(@Nullable Object transactionData) {
+        if (transactionData instanceof SavepointTransactionData) {
+            transactionData = ((SavepointTransactionData) transactionData).transactionData;
+        }
+        super.cleanupTransaction(transactionData);
+    }
+
+
+    @Slf4j
+    @RequiredArgsConstructor
+    private static class SavepointTransactionData implements SavepointManager {
+
+        private final EntityManager entityManager;
+        private final Object transactionData;
+
+        @Override
+        public Object createSavepoint() throws TransactionException {
+            entityManager.flush();
+            SessionImplementor session = session();
+            Map<Object, Object[]> loadedStates = new IdentityHashMap<>();
+            for (Map.Entry<Object, EntityEntry> entry : session.getPersistenceContextInternal().reentrantSafeEntityEntries()) {
+                loadedStates.put(entry.getKey(), entry.getValue().getLoadedState());
+            }
+            try {
+                return new JpaSavepoint(session.connection().setSavepoint(), loadedStates);
+            } catch (SQLException e) {
+                throw new CannotCreateTransactionException("Could not create JDBC savepoint", e);
+            }
+        }
+
+        @Override
+        public void rollbackToSavepoint(Object savepoint) throws TransactionException {
+            JpaSavepoint jpaSavepoint = (JpaSavepoint) savepoint;
+            SessionImplementor session = session();
+            try {
+                session.connection().rollback(jpaSavepoint.savepoint);
+            } catch (SQLException e) {
+                throw new TransactionSystemException("Could not roll back to JDBC savepoint", e);
+            }
+            // 세이브포인트 생성 시 flush 했으므로 남은 액션은 모두 세이브포인트 이후 작업
+            session.getActionQueue().clear();
+            restore(session, jpaSavepoint.loadedStates);
+        }
+
+        private void restore(SessionImplementor session, Map<Object, Object[]> loadedStates) {
+            PersistenceContext persistenceContext = session.getPersistenceContextInternal();
+            for (Map.Entry<Object, EntityEntry> entry : persistenceContext.reentrantSafeEntityEntries()) {
+                Object entity = entry.getKey();
+                EntityEntry entityEntry = entry.getValue();
+                if (persistenceContext.getEntry(entity) == null) {
+                    continue;   // 앞선 detach 의 cascade 로 이미 준영속
+                }
+                if (!loadedStates.containsKey(entity) || entityEntry.getStatus() == Status.DELETED) {
+                    entityManager.detach(entity);
+                } else if (loadedStates.get(entity) != entityEntry.getLoadedState() || isDirty(session, entity, entityEntry)) {
+                    entityManager.refresh(entity);
+                }
+            }
+        }
+
+        private static boolean isDirty(SessionImplementor session, Object entity, EntityEntry entry) {
+            Object[] loadedState = entry.getLoadedState();
+            if (loadedState == null) {
+                return false;   // 읽기 전용
+            }
+            EntityPersister persister = entry.getPersister();
+            return persister.findDirty(persister.getPropertyValues(entity), loadedState, entity, session) != null;
+        }
+
+        @Override
+        public void releaseSavepoint(Object savepoint) throws TransactionException {
+            try {
+                session().connection().releaseSavepoint(((JpaSavepoint) savepoint).savepoint);
+            } catch (SQLException e) {
+                log.debug("Could not explicitly release JDBC savepoint", e);
+            }
+        }
+
+        private SessionImplementor session() {
+            return entityManager.unwrap(SessionImplementor.class);
+        }
+    }
+
+
+    @RequiredArgsConstructor
+    private static class JpaSavepoint {
+
+        private final Savepoint savepoint;
+        // 세이브포인트 시점의 영속 엔티티 -> loadedState (flush 되면 새 배열로 교체됨)
+        private final Map<Object, Object[]> loadedStates;
+    }
+}
@@ -0,0 +1,20 @@
+package hello.springtx.lock;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * 같은 키의 호출을 직렬화 (KeyLockAspect, 트랜잭션 AOP 바깥)
+ * value : 키 SpEL, 메서드 파라미터 이름으로 참조 (예: "#username", "#order.username")
+ * name  : 키 앞에 붙는 구분자 (다른 용도의 같은 값과 구분), 기본값은 선언 클래스.메서드
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface KeyLock {
+
+    String value();
+
+    String name() default "";
+}
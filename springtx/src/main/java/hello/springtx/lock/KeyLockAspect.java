@@ -0,0 +1,64 @@
+package hello.springtx.lock;
+
+import lombok.RequiredArgsConstructor;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.expression.MethodBasedEvaluationContext;
+import org.springframework.core.DefaultParameterNameDiscoverer;
+import org.springframework.core.Ordered;
+import org.springframework.core.ParameterNameDiscoverer;
+import org.springframework.core.annotation.Order;
+import org.springframework.expression.Expression;
+import org.springframework.expression.spel.standard.SpelExpressionParser;
+import org.springframework.stereotype.Component;
+
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * @KeyLock 처리
+ * @RetryOnConflict(HIGHEST_PRECEDENCE) 다음, 트랜잭션 AOP(LOWEST_PRECEDENCE) 보다 먼저 실행
+ * -> 재시도마다 락을 다시 획득, 락을 잡은 뒤에 트랜잭션 시작(커넥션 획득)
+ *
+ * SpEL 은 메서드별로 한 번만 파싱
+ */
+@Aspect
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 1)
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "springtx.lock.enabled", havingValue = "true", matchIfMissing = true)
+public class KeyLockAspect {
+
+    private final KeyLockManager keyLockManager;
+
+    private final SpelExpressionParser parser = new SpelExpressionParser();
+    private final ParameterNameDiscoverer parameterNameDiscoverer = new DefaultParameterNameDiscoverer();
+    private final Map<Method, Expression> expressions = new ConcurrentHashMap<>();
+
+    @Around("@annotation(keyLock)")
+    public Object lock(ProceedingJoinPoint joinPoint, KeyLock keyLock) throws Throwable {
+        Method method = ((MethodSignature) joinPoint.getSignature()).getMethod();
+        Expression expression = expressions.computeIfAbsent(method, m -> parser.parseExpression(keyLock.value()));
+        MethodBasedEvaluationContext context =
+                new MethodBasedEvaluationContext(joinPoint.getTarget(), method, joinPoint.getArgs(), parameterNameDiscoverer);
+        Object value = expression.getValue(context);
+        if (value == null) {
+            throw new IllegalArgumentException("key lock value is null. expression=" + keyLock.value());
+        }
+
+        String name = keyLock.name().isEmpty()
+                ? method.getDeclaringClass().getSimpleName() + "." + method.getName()
+                : keyLock.name();
+        ReentrantLock lock = keyLockManager.lock(name + ":" + value);
+        try {
+            return joinPoint.proceed();
+        } finally {
+            lock.unlock();
+        }
+    }
+}
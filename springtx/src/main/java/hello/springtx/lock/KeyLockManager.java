@@ -0,0 +1,107 @@
+package hello.springtx.lock;
+
+import hello.springtx.metrics.Histogram;
+import hello.springtx.support.Striped;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.ToString;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.CannotAcquireLockException;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * 같은 키(username 등) 작업을 프로세스 안에서 직렬화 (트랜잭션 시작 전, 커넥션 획득 전)
+ * -> 같은 행/유니크 키를 두고 DB 락을 기다리며 커넥션을 잡고 있는 상황 방지
+ *
+ * 키 -> 락 : 고정 크기 ReentrantLock 배열에서 키 해시로 선택 (맵, 전역 락 없음, 메모리 일정)
+ * 다른 키가 같은 stripe 에 걸리면 함께 직렬화됨 (stripes 를 동시 작업 수보다 충분히 크게)
+ * 재진입 가능 : 같은 스레드가 같은 키(stripe)를 다시 잠가도 됨
+ *
+ * 주의 : 서로 다른 키를 중첩해서 잠그면 stripe 순서에 따라 교착 상태 가능 -> 중첩 사용 금지
+ *       프로세스 안에서만 유효 (여러 인스턴스 간 직렬화는 DB 제약/락이 담당)
+ */
+@Component
+public class KeyLockManager {
+
+    private final Striped<ReentrantLock> stripes;
+    private final long timeoutNanos;
+
+    private final LongAdder acquired = new LongAdder();
+    private final LongAdder contended = new LongAdder();
+    private final LongAdder timeouts = new LongAdder();
+    private final Histogram waitNanos = new Histogram();
+
+    public KeyLockManager(@Value("${springtx.lock.stripes:1024}") int stripes,
+                          @Value("${springtx.lock.timeout:5s}") Duration timeout) {
+        this.stripes = new Striped<>(stripes, ReentrantLock::new);
+        this.timeoutNanos = timeout.toNanos();
+    }
+
+    public <T> T withLock(Object key, Supplier<T> work) {
+        ReentrantLock lock = lock(key);
+        try {
+            return work.get();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void withLock(Object key, Runnable work) {
+        ReentrantLock lock = lock(key);
+        try {
+            work.run();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 키의 락 획득 (timeout 초과 시 CannotAcquireLockException), 호출자가 unlock
+     */
+    ReentrantLock lock(Object key) {
+        ReentrantLock lock = stripes.get(key);
+        if (lock.tryLock()) {
+            acquired.increment();
+            return lock;
+        }
+
+        contended.increment();
+        long start = System.nanoTime();
+        boolean locked;
+        try {
+            locked = lock.tryLock(timeoutNanos, TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CannotAcquireLockException("interrupted while waiting for key lock. key=" + key, e);
+        }
+        waitNanos.record(System.nanoTime() - start);
+        if (!locked) {
+            timeouts.increment();
+            throw new CannotAcquireLockException("key lock timeout. key=" + key);
+        }
+        acquired.increment();
+        return lock;
+    }
+
+    public LockSnapshot snapshot() {
+        return new LockSnapshot(stripes.size(), acquired.sum(), contended.sum(), timeouts.sum(), waitNanos.snapshot());
+    }
+
+
+    @Getter
+    @ToString
+    @RequiredArgsConstructor
+    public static class LockSnapshot {
+        private final int stripes;
+        private final long acquired;
+        private final long contended;
+        private final long timeouts;
+        private final Histogram.Snapshot waitNanos;
+    }
+}
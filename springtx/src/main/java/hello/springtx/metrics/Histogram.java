@@ -0,0 +1,86 @@
+package hello.springtx.metrics;
+
+import lombok.Getter;
+
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 2의 거듭제곱 구간 히스토그램 (락 없음)
+ * 구간 i : [2^(i-1), 2^i - 1], 0 은 0번 구간
+ * 백분위수는 구간 상한값 (최대 2배 오차) -> 지연시간 분포 확인 용도
+ */
+public class Histogram {
+
+    private static final int BUCKETS = 65;
+
+    private final LongAdder[] buckets = new LongAdder[BUCKETS];
+    private final LongAdder count = new LongAdder();
+    private final LongAdder sum = new LongAdder();
+    private final LongAccumulator max = new LongAccumulator(Long::max, 0);
+
+    public Histogram() {
+        for (int i = 0; i < BUCKETS; i++) {
+            buckets[i] = new LongAdder();
+        }
+    }
+
+    public void record(long value) {
+        long v = Math.max(value, 0);
+        buckets[64 - Long.numberOfLeadingZeros(v)].increment();
+        count.increment();
+        sum.add(v);
+        max.accumulate(v);
+    }
+
+    public Snapshot snapshot() {
+        long[] counts = new long[BUCKETS];
+        for (int i = 0; i < BUCKETS; i++) {
+            counts[i] = buckets[i].sum();
+        }
+        return new Snapshot(count.sum(), sum.sum(), max.get(), counts);
+    }
+
+
+    @Getter
+    public static class Snapshot {
+
+        private final long count;
+        private final long sum;
+        private final long max;
+        private final long[] bucketCounts;
+
+        Snapshot(long count, long sum, long max, long[] bucketCounts) {
+            this.count = count;
+            this.sum = sum;
+            this.max = max;
+            this.bucketCounts = bucketCounts;
+        }
+
+        public double mean() {
+            return count == 0 ? 0 : (double) sum / count;
+        }
+
+        public long percentile(double percentile) {
+            long target = (long) Math.ceil(percentile / 100.0 * count);
+            long seen = 0;
+            for (int i = 0; i < bucketCounts.length; i++) {
+                seen += bucketCounts[i];
+                if (seen >= target && seen > 0) {
+                    return Math.min(upperBound(i), max);
+                }
+            }
+            return max;
+        }
+
+        private static long upperBound(int bucket) {
+            return bucket >= 63 ? Long.MAX_VALUE : (1L << bucket) - 1;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("count=%d mean=%.0f p50=%d p99=%d max=%d",
+                    count, mean(), percentile(50), percentile(99), max);
+        }
+    }
+}
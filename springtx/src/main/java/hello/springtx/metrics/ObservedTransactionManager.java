@@ -0,0 +1,202 @@
+package hello.springtx.metrics;
+
+import hello.springtx.datasource.ConnectionPoolMetrics;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionException;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.annotation.Isolation;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.support.ResourceTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * PlatformTransactionManager 데코레이터
+ * TransactionInterceptor, TransactionTemplate 의 getTransaction / commit / rollback 을 관찰해서 TransactionListener 에 전달
+ * 로그 출력 없이 System.nanoTime, ThreadLocal 스택만 사용
+ *
+ * ResourceTransactionManager 계약 유지 (getResourceFactory : JpaTransactionManager 는 EntityManagerFactory)
+ * -> TransactionSynchronizationManager 리소스 키로 매니저를 찾는 코드도 그대로 동작
+ * 구체 타입(JpaTransactionManager 등)이 필요하면 getDelegate
+ */
+public class ObservedTransactionManager implements ResourceTransactionManager {
+
+    private static final String UNNAMED = "unnamed";
+
+    private static final Isolation[] ISOLATIONS = Isolation.values();
+
+    // PROPAGATION_XXX 상수(0~6) -> Propagation
+    private static final Propagation[] PROPAGATIONS = new Propagation[Propagation.values().length];
+
+    static {
+        for (Propagation propagation : Propagation.values()) {
+            PROPAGATIONS[propagation.value()] = propagation;
+        }
+    }
+
+    private final ResourceTransactionManager delegate;
+    private final TransactionListener[] listeners;
+
+    // 진행 중인 논리 트랜잭션 (스레드별, 안쪽 트랜잭션이 먼저 종료)
+    private final ThreadLocal<Deque<Entry>> inProgress = ThreadLocal.withInitial(ArrayDeque::new);
+
+    public ObservedTransactionManager(ResourceTransactionManager delegate, List<TransactionListener> listeners) {
+        this.delegate = delegate;
+        this.listeners = listeners.toArray(new TransactionListener[0]);
+    }
+
+    public ResourceTransactionManager getDelegate() {
+        return delegate;
+    }
+
+    @Override
+    public Object getResourceFactory() {
+        return delegate.getResourceFactory();
+    }
+
+    @Override
+    public TransactionStatus getTransaction(TransactionDefinition definition) throws TransactionException {
+        for (TransactionListener listener : listeners) {
+            listener.beforeBegin(definition);
+        }
+        long start = System.nanoTime();
+        long acquireBefore = ConnectionPoolMetrics.threadAcquireNanos();
+        long connectionsBefore = ConnectionPoolMetrics.threadAcquireCount();
+        long statementsBefore = SqlStatementCounter.threadCount();
+        boolean outerActive = TransactionSynchronizationManager.isActualTransactionActive();
+        TransactionStatus status = delegate.getTransaction(definition);
+        long beginEnd = System.nanoTime();
+
+        Propagation propagation = propagation(definition);
+        TransactionObservation observation = new TransactionObservation(
+                shortName(definition),
+                propagation,
+                isolation(definition),
+                status.isNewTransaction(),
+                status.hasSavepoint(),
+                TransactionSynchronizationManager.isActualTransactionActive(),
+                outerActive && (propagation == Propagation.REQUIRES_NEW || propagation == Propagation.NOT_SUPPORTED),
+                definition != null && definition.isReadOnly(),
+                start,
+                beginEnd,
+                ConnectionPoolMetrics.threadAcquireNanos() - acquireBefore,
+                connectionsBefore,
+                statementsBefore);
+        inProgress.get().push(new Entry(status, observation));
+        for (TransactionListener listener : listeners) {
+            listener.onBegin(observation);
+        }
+        return status;
+    }
+
+    @Override
+    public void commit(TransactionStatus status) throws TransactionException {
+        TransactionObservation observation = beforeCompletion(status);
+        // rollbackOnly 면 commit 호출이어도 롤백
+        boolean rollbackOnly = status.isRollbackOnly();
+        Throwable failure = null;
+        try {
+            delegate.commit(status);
+        } catch (RuntimeException | Error e) {
+            failure = e;
+            throw e;
+        } finally {
+            complete(observation, !rollbackOnly && failure == null, rollbackOnly, failure);
+        }
+    }
+
+    @Override
+    public void rollback(TransactionStatus status) throws TransactionException {
+        TransactionObservation observation = beforeCompletion(status);
+        Throwable failure = null;
+        try {
+            delegate.rollback(status);
+        } catch (RuntimeException | Error e) {
+            failure = e;
+            throw e;
+        } finally {
+            complete(observation, false, false, failure);
+        }
+    }
+
+    private void complete(TransactionObservation observation, boolean committed, boolean rollbackOnly, Throwable failure) {
+        if (observation == null) {
+            return;
+        }
+        observation.complete(System.nanoTime(), committed, rollbackOnly, failure,
+                ConnectionPoolMetrics.threadAcquireCount(), SqlStatementCounter.threadCount());
+        for (TransactionListener listener : listeners) {
+            listener.onComplete(observation);
+        }
+    }
+
+    private TransactionObservation beforeCompletion(TransactionStatus status) {
+        TransactionObservation observation = remove(status);
+        if (observation != null) {
+            observation.beforeCompletion(System.nanoTime());
+            for (TransactionListener listener : listeners) {
+                listener.beforeCompletion(observation);
+            }
+        }
+        return observation;
+    }
+
+    private TransactionObservation remove(TransactionStatus status) {
+        Deque<Entry> entries = inProgress.get();
+        Iterator<Entry> iterator = entries.iterator();
+        while (iterator.hasNext()) {
+            Entry entry = iterator.next();
+            if (entry.status == status) {
+                iterator.remove();
+                return entry.observation;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * hello.springtx.order.OrderService.order -> OrderService.order
+     */
+    static String shortName(TransactionDefinition definition) {
+        String name = definition == null ? null : definition.getName();
+        if (name == null) {
+            return UNNAMED;
+        }
+        int method = name.lastIndexOf('.');
+        int type = method > 0 ? name.lastIndexOf('.', method - 1) : -1;
+        return type < 0 ? name : name.substring(type + 1);
+    }
+
+    private static Isolation isolation(TransactionDefinition definition) {
+        int level = definition == null ? TransactionDefinition.ISOLATION_DEFAULT : definition.getIsolationLevel();
+        for (Isolation isolation : ISOLATIONS) {
+            if (isolation.value() == level) {
+                return isolation;
+            }
+        }
+        return Isolation.DEFAULT;
+    }
+
+    private static Propagation propagation(TransactionDefinition definition) {
+        int behavior = definition == null
+                ? TransactionDefinition.PROPAGATION_REQUIRED
+                : definition.getPropagationBehavior();
+        return behavior >= 0 && behavior < PROPAGATIONS.length ? PROPAGATIONS[behavior] : Propagation.REQUIRED;
+    }
+
+
+    private static class Entry {
+
+        private final TransactionStatus status;
+        private final TransactionObservation observation;
+
+        Entry(TransactionStatus status, TransactionObservation observation) {
+            this.status = status;
+            this.observation = observation;
+        }
+    }
+}
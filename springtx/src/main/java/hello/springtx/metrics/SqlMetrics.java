@@ -0,0 +1,181 @@
+package hello.springtx.metrics;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Pattern;
+
+/**
+ * SQL 형태(shape)별 실행 시간 히스토그램 + 느린 SQL 로그
+ * shape : 문자열/숫자 리터럴 -> ?, IN (?, ?, ?) -> IN (?...), 공백 정리
+ * shape 종류가 maxShapes 를 넘으면 나머지는 "(other)" 로 집계 (메모리 상한)
+ */
+@Slf4j
+public class SqlMetrics {
+
+    static final String OTHER = "(other)";
+
+    private static final Pattern PARAMETER_LIST = Pattern.compile("\\?(\\s*,\\s*\\?)+");
+
+    // 현재 스레드에서 실행한 SQL 수집 (테스트 검증용)
+    private static final ThreadLocal<List<String>> CAPTURE = new ThreadLocal<>();
+
+    private final long slowThresholdNanos;
+    private final int maxShapes;
+    private final Map<String, ShapeMetrics> shapes = new ConcurrentHashMap<>();
+    // 원본 SQL -> shape (PreparedStatement SQL 은 종류가 적어 매번 정규화하지 않음)
+    private final Map<String, String> shapeCache = new ConcurrentHashMap<>();
+
+    public SqlMetrics(Duration slowThreshold, int maxShapes) {
+        this.slowThresholdNanos = slowThreshold.toNanos();
+        this.maxShapes = maxShapes;
+    }
+
+    public void record(String sql, long elapsedNanos) {
+        String shape = shapeOf(sql);
+        List<String> captured = CAPTURE.get();
+        if (captured != null) {
+            captured.add(shape);
+        }
+
+        ShapeMetrics metrics = shapes.get(shape);
+        if (metrics == null) {
+            metrics = shapes.size() < maxShapes
+                    ? shapes.computeIfAbsent(shape, s -> new ShapeMetrics())
+                    : shapes.computeIfAbsent(OTHER, s -> new ShapeMetrics());
+        }
+        metrics.elapsed.record(elapsedNanos);
+        if (elapsedNanos >= slowThresholdNanos) {
+            metrics.slow.increment();
+            log.warn("느린 SQL {}ms : {}", elapsedNanos / 1_000_000, sql);
+        }
+    }
+
+    private String shapeOf(String sql) {
+        if (sql == null) {
+            return OTHER;
+        }
+        String shape = shapeCache.get(sql);
+        if (shape == null) {
+            shape = shape(sql);
+            if (shapeCache.size() < maxShapes * 4) {
+                shapeCache.put(sql, shape);
+            }
+        }
+        return shape;
+    }
+
+    /**
+     * @return shape 별 통계 (총 실행 시간 내림차순)
+     */
+    public List<SqlStats> report() {
+        List<SqlStats> stats = new ArrayList<>();
+        shapes.forEach((shape, metrics) -> stats.add(new SqlStats(shape, metrics.elapsed.snapshot(), metrics.slow.sum())));
+        stats.sort(Comparator.comparingLong((SqlStats s) -> s.elapsed().getSum()).reversed());
+        return stats;
+    }
+
+    public String render() {
+        StringBuilder sb = new StringBuilder();
+        for (SqlStats stats : report()) {
+            sb.append(stats).append('\n');
+        }
+        return sb.toString();
+    }
+
+    public void reset() {
+        shapes.clear();
+    }
+
+    /**
+     * 현재 스레드에서 close 전까지 실행한 SQL shape 수집
+     */
+    public static Capture capture() {
+        return new Capture();
+    }
+
+    static String shape(String sql) {
+        StringBuilder sb = new StringBuilder(sql.length());
+        boolean space = false;
+        int length = sql.length();
+        for (int i = 0; i < length; i++) {
+            char c = sql.charAt(i);
+            if (Character.isWhitespace(c)) {
+                space = sb.length() > 0;
+                continue;
+            }
+            if (space) {
+                sb.append(' ');
+                space = false;
+            }
+            if (c == '\'') {
+                // 문자열 리터럴 ('' 는 이스케이프)
+                i++;
+                while (i < length) {
+                    if (sql.charAt(i) == '\'') {
+                        if (i + 1 < length && sql.charAt(i + 1) == '\'') {
+                            i++;
+                        } else {
+                            break;
+                        }
+                    }
+                    i++;
+                }
+                sb.append('?');
+            } else if (Character.isDigit(c) && !isIdentifierPart(sb)) {
+                while (i + 1 < length && (Character.isDigit(sql.charAt(i + 1)) || sql.charAt(i + 1) == '.')) {
+                    i++;
+                }
+                sb.append('?');
+            } else {
+                sb.append(c);
+            }
+        }
+        return PARAMETER_LIST.matcher(sb).replaceAll("?...");
+    }
+
+    private static boolean isIdentifierPart(StringBuilder sb) {
+        if (sb.length() == 0) {
+            return false;
+        }
+        char previous = sb.charAt(sb.length() - 1);
+        return Character.isLetterOrDigit(previous) || previous == '_' || previous == '.';
+    }
+
+
+    private static class ShapeMetrics {
+        private final Histogram elapsed = new Histogram();
+        private final LongAdder slow = new LongAdder();
+    }
+
+
+    public static class Capture implements AutoCloseable {
+
+        private final List<String> previous = CAPTURE.get();
+        private final List<String> statements = new ArrayList<>();
+
+        private Capture() {
+            CAPTURE.set(statements);
+        }
+
+        public List<String> getStatements() {
+            return statements;
+        }
+
+        @Override
+        public void close() {
+            if (previous == null) {
+                CAPTURE.remove();
+            } else {
+                previous.addAll(statements);
+                CAPTURE.set(previous);
+            }
+        }
+    }
+}
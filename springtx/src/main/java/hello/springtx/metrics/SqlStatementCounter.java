@@ -0,0 +1,24 @@
+package hello.springtx.metrics;
+
+/**
+ * 스레드별 누적 SQL 실행 수 (StatementTimingDataSource 가 execute 마다 증가, SQL 메트릭 설정과 무관)
+ * JDBC Batch 는 executeBatch 1회당 1건 (DB 왕복 횟수 기준)
+ */
+public final class SqlStatementCounter {
+
+    private static final ThreadLocal<long[]> THREAD_COUNT = ThreadLocal.withInitial(() -> new long[1]);
+
+    private SqlStatementCounter() {
+    }
+
+    /**
+     * 현재 스레드가 지금까지 실행한 SQL 수
+     */
+    public static long threadCount() {
+        return THREAD_COUNT.get()[0];
+    }
+
+    public static void increment() {
+        THREAD_COUNT.get()[0]++;
+    }
+}
@@ -0,0 +1,39 @@
+package hello.springtx.metrics;
+
+/**
+ * SQL shape 별 통계 스냅샷 (시간 단위 ns)
+ */
+public class SqlStats {
+
+    private final String shape;
+    private final Histogram.Snapshot elapsed;
+    private final long slow;
+
+    SqlStats(String shape, Histogram.Snapshot elapsed, long slow) {
+        this.shape = shape;
+        this.elapsed = elapsed;
+        this.slow = slow;
+    }
+
+    public String getShape() {
+        return shape;
+    }
+
+    public long getCount() {
+        return elapsed.getCount();
+    }
+
+    public long getSlow() {
+        return slow;
+    }
+
+    public Histogram.Snapshot elapsed() {
+        return elapsed;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("total=%.3fms %s slow=%d : %s",
+                elapsed.getSum() / 1_000_000.0, elapsed, slow, shape);
+    }
+}
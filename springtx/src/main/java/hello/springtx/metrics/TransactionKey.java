@@ -0,0 +1,24 @@
+package hello.springtx.metrics;
+
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.transaction.annotation.Propagation;
+
+/**
+ * 트랜잭션 지표 태그 : 서비스 메서드 + 전파 옵션 + 물리 트랜잭션 시작 여부
+ */
+@Getter
+@EqualsAndHashCode
+@RequiredArgsConstructor
+public class TransactionKey {
+
+    private final String name;
+    private final Propagation propagation;
+    private final boolean physical;
+
+    @Override
+    public String toString() {
+        return name + "[" + propagation + (physical ? ",physical" : ",participating") + "]";
+    }
+}
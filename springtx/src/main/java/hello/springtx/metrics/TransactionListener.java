@@ -0,0 +1,28 @@
+package hello.springtx.metrics;
+
+import org.springframework.transaction.TransactionDefinition;
+
+/**
+ * ObservedTransactionManager 가 트랜잭션 시작/종료 시 호출
+ * 트랜잭션을 시작한 스레드에서 동기 호출되므로 가볍게 구현
+ */
+public interface TransactionListener {
+
+    /**
+     * getTransaction 호출 직전 (기존 트랜잭션 보류, 커넥션 획득 전)
+     */
+    default void beforeBegin(TransactionDefinition definition) {
+    }
+
+    default void onBegin(TransactionObservation observation) {
+    }
+
+    /**
+     * commit / rollback 호출 직전
+     */
+    default void beforeCompletion(TransactionObservation observation) {
+    }
+
+    default void onComplete(TransactionObservation observation) {
+    }
+}
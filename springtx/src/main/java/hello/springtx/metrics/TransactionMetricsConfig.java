@@ -0,0 +1,68 @@
+package hello.springtx.metrics;
+
+import hello.springtx.metrics.jfr.JfrTransactionListener;
+import org.springframework.beans.BeansException;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.transaction.support.CallbackPreferringPlatformTransactionManager;
+import org.springframework.transaction.support.ResourceTransactionManager;
+
+import java.util.stream.Collectors;
+
+/**
+ * 트랜잭션 지표 (springtx.tx.metrics.enabled=false 로 비활성화)
+ * 1. ResourceTransactionManager 빈(JpaTransactionManager, DataSourceTransactionManager)을 ObservedTransactionManager 로 감쌈
+ *    (ResourceTransactionManager 계약 유지, JTA 등 다른 매니저와 CallbackPreferring 매니저는 감싸지 않음)
+ * 2. TransactionListener 빈(TransactionMetricsRegistry 등)에 시작/종료 전달
+ * 3. TransactionMetricsRegistry 를 JMX MXBean 으로 등록
+ * 4. TransactionTreeProfiler : 요청별 트랜잭션 트리 (springtx.tx.profiler.enabled=false 로 비활성화)
+ * 5. JfrTransactionListener : JFR 이벤트 (springtx.tx.jfr.enabled=false 로 비활성화)
+ */
+@Configuration
+@ConditionalOnProperty(name = "springtx.tx.metrics.enabled", havingValue = "true", matchIfMissing = true)
+public class TransactionMetricsConfig {
+
+    @Bean
+    public static BeanPostProcessor observedTransactionManagerPostProcessor(ObjectProvider<TransactionListener> listeners) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) throws BeansException {
+                if (bean instanceof ResourceTransactionManager
+                        && !(bean instanceof ObservedTransactionManager)
+                        && !(bean instanceof CallbackPreferringPlatformTransactionManager)) {
+                    return new ObservedTransactionManager((ResourceTransactionManager) bean,
+                            listeners.orderedStream().collect(Collectors.toList()));
+                }
+                return bean;
+            }
+        };
+    }
+
+    @Bean
+    public TransactionMetricsRegistry transactionMetricsRegistry() {
+        return new TransactionMetricsRegistry();
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "springtx.tx.profiler.enabled", havingValue = "true", matchIfMissing = true)
+    public TransactionTreeProfiler transactionTreeProfiler(
+            @Value("${springtx.tx.profiler.capacity:64}") int capacity,
+            @Value("${springtx.tx.profiler.dump-on-rollback:true}") boolean dumpOnRollback) {
+        return new TransactionTreeProfiler(capacity, dumpOnRollback);
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "springtx.tx.jfr.enabled", havingValue = "true", matchIfMissing = true)
+    public JfrTransactionListener jfrTransactionListener() {
+        return new JfrTransactionListener();
+    }
+
+    @Bean
+    public TransactionMetricsJmxExporter transactionMetricsJmxExporter(TransactionMetricsRegistry registry) {
+        return new TransactionMetricsJmxExporter(registry);
+    }
+}
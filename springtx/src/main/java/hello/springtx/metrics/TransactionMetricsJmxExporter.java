@@ -0,0 +1,46 @@
+package hello.springtx.metrics;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+
+import javax.management.InstanceNotFoundException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import javax.management.StandardMBean;
+import java.lang.management.ManagementFactory;
+
+/**
+ * TransactionMetricsRegistry 를 플랫폼 MBeanServer 에 등록 (spring.jmx.enabled 와 무관)
+ * 테스트처럼 컨텍스트가 여러 개면 마지막 컨텍스트의 지표로 교체
+ */
+@RequiredArgsConstructor
+public class TransactionMetricsJmxExporter implements InitializingBean, DisposableBean {
+
+    public static final String OBJECT_NAME = "hello.springtx:type=TransactionMetrics";
+
+    private final TransactionMetricsRegistry registry;
+    private final MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+
+    @Override
+    public void afterPropertiesSet() throws Exception {
+        ObjectName name = new ObjectName(OBJECT_NAME);
+        if (server.isRegistered(name)) {
+            unregister(name);
+        }
+        server.registerMBean(new StandardMBean(registry, TransactionMetricsMXBean.class, true), name);
+    }
+
+    @Override
+    public void destroy() throws Exception {
+        unregister(new ObjectName(OBJECT_NAME));
+    }
+
+    private void unregister(ObjectName name) throws Exception {
+        try {
+            server.unregisterMBean(name);
+        } catch (InstanceNotFoundException e) {
+            // 다른 컨텍스트에서 이미 해제
+        }
+    }
+}
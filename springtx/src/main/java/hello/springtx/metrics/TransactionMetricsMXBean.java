@@ -0,0 +1,15 @@
+package hello.springtx.metrics;
+
+import java.util.List;
+
+/**
+ * JMX : hello.springtx:type=TransactionMetrics
+ */
+public interface TransactionMetricsMXBean {
+
+    List<TransactionStats> getTransactions();
+
+    long getActiveTransactions();
+
+    void reset();
+}
@@ -0,0 +1,94 @@
+package hello.springtx.metrics;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 트랜잭션 지표 저장소 (애플리케이션 내부 조회 + JMX)
+ * begin / commit / rollback 건수, 트랜잭션 시간, 커넥션 획득 시간, 트랜잭션당 SQL 수 히스토그램
+ */
+public class TransactionMetricsRegistry implements TransactionListener, TransactionMetricsMXBean {
+
+    private final Map<TransactionKey, Metrics> metrics = new ConcurrentHashMap<>();
+    private final LongAdder active = new LongAdder();
+
+    @Override
+    public void onBegin(TransactionObservation observation) {
+        metrics(observation).begins.increment();
+        active.increment();
+    }
+
+    @Override
+    public void onComplete(TransactionObservation observation) {
+        active.decrement();
+        Metrics m = metrics(observation);
+        if (observation.isCommitted()) {
+            m.commits.increment();
+        } else {
+            m.rollbacks.increment();
+        }
+        m.duration.record(observation.getDurationNanos());
+        m.acquire.record(observation.getAcquireNanos());
+        m.statements.record(observation.getStatements());
+    }
+
+    private Metrics metrics(TransactionObservation observation) {
+        TransactionKey key = new TransactionKey(
+                observation.getName(), observation.getPropagation(), observation.isNewTransaction());
+        Metrics m = metrics.get(key);
+        return m != null ? m : metrics.computeIfAbsent(key, k -> new Metrics());
+    }
+
+    @Override
+    public List<TransactionStats> getTransactions() {
+        List<TransactionStats> stats = new ArrayList<>();
+        metrics.forEach((key, m) -> stats.add(m.snapshot(key)));
+        stats.sort(Comparator.comparing(TransactionStats::getName)
+                .thenComparing(TransactionStats::getPropagation)
+                .thenComparing(TransactionStats::isPhysical));
+        return stats;
+    }
+
+    /**
+     * @return 해당 메서드 + 전파 옵션의 지표 (물리/참여 트랜잭션 별도)
+     */
+    public List<TransactionStats> find(String name) {
+        List<TransactionStats> stats = new ArrayList<>();
+        for (TransactionStats s : getTransactions()) {
+            if (s.getName().equals(name)) {
+                stats.add(s);
+            }
+        }
+        return stats;
+    }
+
+    @Override
+    public long getActiveTransactions() {
+        return active.sum();
+    }
+
+    @Override
+    public void reset() {
+        metrics.clear();
+    }
+
+
+    private static class Metrics {
+
+        private final LongAdder begins = new LongAdder();
+        private final LongAdder commits = new LongAdder();
+        private final LongAdder rollbacks = new LongAdder();
+        private final Histogram duration = new Histogram();
+        private final Histogram acquire = new Histogram();
+        private final Histogram statements = new Histogram();
+
+        TransactionStats snapshot(TransactionKey key) {
+            return new TransactionStats(key, begins.sum(), commits.sum(), rollbacks.sum(),
+                    duration.snapshot(), acquire.snapshot(), statements.snapshot());
+        }
+    }
+}
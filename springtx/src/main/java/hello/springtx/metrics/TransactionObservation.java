@@ -0,0 +1,94 @@
+package hello.springtx.metrics;
+
+import lombok.Getter;
+import org.springframework.transaction.annotation.Isolation;
+import org.springframework.transaction.annotation.Propagation;
+
+/**
+ * 논리 트랜잭션 1건 (getTransaction ~ commit/rollback)
+ * name          : 서비스 메서드 (OrderService.order), TransactionTemplate 등 이름이 없으면 "unnamed"
+ * newTransaction : 물리 트랜잭션 시작 여부 (false 면 외부 트랜잭션에 참여)
+ * savepoint      : NESTED 세이브포인트로 시작 (롤백해도 세이브포인트까지만 롤백)
+ * transactional  : 시작 시점에 실제 트랜잭션이 있는지 (SUPPORTS, NOT_SUPPORTED 는 false 일 수 있음)
+ * suspended      : 기존 트랜잭션을 보류하고 시작 (REQUIRES_NEW, NOT_SUPPORTED)
+ * rollbackOnly   : commit 호출 시점에 rollbackOnly (commit 을 호출해도 롤백)
+ * failure        : commit / rollback 중 발생한 예외 (UnexpectedRollbackException 등)
+ * connections, statements : 시작 ~ 종료 사이 획득한 커넥션 수, 실행한 SQL 수 (하위 트랜잭션 포함)
+ */
+@Getter
+public class TransactionObservation {
+
+    private final String name;
+    private final Propagation propagation;
+    private final Isolation isolation;
+    private final boolean newTransaction;
+    private final boolean savepoint;
+    private final boolean transactional;
+    private final boolean suspended;
+    private final boolean readOnly;
+    private final long startNanos;
+    private final long beginEndNanos;
+    private final long acquireNanos;
+    private final long connectionsBefore;
+    private final long statementsBefore;
+
+    private long completionStartNanos;
+    private long endNanos;
+    private boolean committed;
+    private boolean rollbackOnly;
+    private Throwable failure;
+    private long connections;
+    private long statements;
+
+    TransactionObservation(String name, Propagation propagation, Isolation isolation,
+                           boolean newTransaction, boolean savepoint, boolean transactional,
+                           boolean suspended, boolean readOnly,
+                           long startNanos, long beginEndNanos, long acquireNanos,
+                           long connectionsBefore, long statementsBefore) {
+        this.name = name;
+        this.propagation = propagation;
+        this.isolation = isolation;
+        this.newTransaction = newTransaction;
+        this.savepoint = savepoint;
+        this.transactional = transactional;
+        this.suspended = suspended;
+        this.readOnly = readOnly;
+        this.startNanos = startNanos;
+        this.beginEndNanos = beginEndNanos;
+        this.acquireNanos = acquireNanos;
+        this.connectionsBefore = connectionsBefore;
+        this.statementsBefore = statementsBefore;
+    }
+
+    void beforeCompletion(long completionStartNanos) {
+        this.completionStartNanos = completionStartNanos;
+    }
+
+    void complete(long endNanos, boolean committed, boolean rollbackOnly, Throwable failure,
+                  long connectionsAfter, long statementsAfter) {
+        this.endNanos = endNanos;
+        this.connections = connectionsAfter - connectionsBefore;
+        this.statements = statementsAfter - statementsBefore;
+        this.committed = committed;
+        this.rollbackOnly = rollbackOnly;
+        this.failure = failure;
+    }
+
+    public long getDurationNanos() {
+        return endNanos - startNanos;
+    }
+
+    /**
+     * getTransaction 시간 (기존 트랜잭션 보류 + 커넥션 획득 포함)
+     */
+    public long getBeginNanos() {
+        return beginEndNanos - startNanos;
+    }
+
+    /**
+     * commit / rollback 시간
+     */
+    public long getCompletionNanos() {
+        return endNanos - completionStartNanos;
+    }
+}
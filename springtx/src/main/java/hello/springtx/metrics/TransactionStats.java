@@ -0,0 +1,107 @@
+package hello.springtx.metrics;
+
+/**
+ * TransactionKey 별 지표 스냅샷 (MXBean 에서는 CompositeData 로 노출)
+ * 시간 단위는 마이크로초, 백분위수는 Histogram 구간 상한값
+ */
+public class TransactionStats {
+
+    private final TransactionKey key;
+    private final long begins;
+    private final long commits;
+    private final long rollbacks;
+    private final Histogram.Snapshot duration;
+    private final Histogram.Snapshot acquire;
+    private final Histogram.Snapshot statements;
+
+    TransactionStats(TransactionKey key, long begins, long commits, long rollbacks,
+                     Histogram.Snapshot duration, Histogram.Snapshot acquire, Histogram.Snapshot statements) {
+        this.key = key;
+        this.begins = begins;
+        this.commits = commits;
+        this.rollbacks = rollbacks;
+        this.duration = duration;
+        this.acquire = acquire;
+        this.statements = statements;
+    }
+
+    public String getName() {
+        return key.getName();
+    }
+
+    public String getPropagation() {
+        return key.getPropagation().name();
+    }
+
+    public boolean isPhysical() {
+        return key.isPhysical();
+    }
+
+    public long getBegins() {
+        return begins;
+    }
+
+    public long getCommits() {
+        return commits;
+    }
+
+    public long getRollbacks() {
+        return rollbacks;
+    }
+
+    public double getMeanMicros() {
+        return duration.mean() / 1_000;
+    }
+
+    public long getP50Micros() {
+        return duration.percentile(50) / 1_000;
+    }
+
+    public long getP99Micros() {
+        return duration.percentile(99) / 1_000;
+    }
+
+    public long getMaxMicros() {
+        return duration.getMax() / 1_000;
+    }
+
+    public long getAcquireP99Micros() {
+        return acquire.percentile(99) / 1_000;
+    }
+
+    public long getAcquireMaxMicros() {
+        return acquire.getMax() / 1_000;
+    }
+
+    // 트랜잭션당 SQL 수 (하위 트랜잭션 포함)
+    public long getStatementsMax() {
+        return statements.getMax();
+    }
+
+    public double getStatementsMean() {
+        return statements.mean();
+    }
+
+    // 애플리케이션 내부 조회용 (MXBean 속성 X)
+    public TransactionKey key() {
+        return key;
+    }
+
+    public Histogram.Snapshot duration() {
+        return duration;
+    }
+
+    public Histogram.Snapshot acquire() {
+        return acquire;
+    }
+
+    public Histogram.Snapshot statements() {
+        return statements;
+    }
+
+    @Override
+    public String toString() {
+        return key + " begins=" + begins + " commits=" + commits + " rollbacks=" + rollbacks
+                + " duration(ns)={" + duration + "} acquire(ns)={" + acquire + "} statements={" + statements + "}";
+    }
+}
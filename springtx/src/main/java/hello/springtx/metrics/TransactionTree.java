@@ -0,0 +1,32 @@
+package hello.springtx.metrics;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * 최외곽 트랜잭션 1건 (요청 1건) 의 논리/물리 트랜잭션 트리
+ */
+@Getter
+@RequiredArgsConstructor
+public class TransactionTree {
+
+    private final long sequence;
+    private final String threadName;
+    private final TransactionTreeNode root;
+
+    public boolean isRolledBack() {
+        return !root.getObservation().isCommitted();
+    }
+
+    public String render() {
+        StringBuilder sb = new StringBuilder();
+        sb.append("[#").append(sequence).append(" thread=").append(threadName).append("]\n");
+        root.render(sb, 0);
+        return sb.toString();
+    }
+
+    @Override
+    public String toString() {
+        return render();
+    }
+}
@@ -0,0 +1,87 @@
+package hello.springtx.metrics;
+
+import lombok.Getter;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * 트랜잭션 트리의 논리 트랜잭션 1건
+ */
+@Getter
+public class TransactionTreeNode {
+
+    private final TransactionObservation observation;
+    private final List<TransactionTreeNode> children = new ArrayList<>();
+
+    TransactionTreeNode(TransactionObservation observation) {
+        this.observation = observation;
+    }
+
+    void addChild(TransactionTreeNode child) {
+        children.add(child);
+    }
+
+    public long getConnections() {
+        return observation.getConnections();
+    }
+
+    public long getStatements() {
+        return observation.getStatements();
+    }
+
+    public List<TransactionTreeNode> getChildren() {
+        return Collections.unmodifiableList(children);
+    }
+
+    /**
+     * 참여 중인 트랜잭션이 롤백 -> 외부 물리 트랜잭션을 rollbackOnly 로 표시
+     * NESTED 는 세이브포인트까지만 롤백, 실제 트랜잭션이 없는 범위(SUPPORTS, NOT_SUPPORTED)는 표시할 외부 트랜잭션이 없음
+     */
+    public boolean isMarkedRollbackOnly() {
+        return !observation.isNewTransaction()
+                && !observation.isSavepoint()
+                && observation.isTransactional()
+                && !observation.isCommitted();
+    }
+
+    private static String scope(TransactionObservation o) {
+        if (o.isNewTransaction()) {
+            return " physical";
+        }
+        if (o.isSavepoint()) {
+            return " savepoint";
+        }
+        return o.isTransactional() ? " participating" : " non-transactional";
+    }
+
+    void render(StringBuilder sb, int depth) {
+        TransactionObservation o = observation;
+        for (int i = 0; i < depth; i++) {
+            sb.append("   ");
+        }
+        if (depth > 0) {
+            sb.append("+- ");
+        }
+        sb.append(o.getName())
+                .append(' ').append(o.getPropagation())
+                .append(scope(o))
+                .append(o.isCommitted() ? " COMMIT" : " ROLLBACK");
+        if (o.isRollbackOnly()) {
+            sb.append(" (rollbackOnly)");
+        }
+        if (isMarkedRollbackOnly()) {
+            sb.append(" -> 외부 트랜잭션 rollbackOnly");
+        }
+        if (o.getFailure() != null) {
+            sb.append(' ').append(o.getFailure().getClass().getSimpleName());
+        }
+        sb.append(String.format(" %.3fms connections=%d statements=%d",
+                o.getDurationNanos() / 1_000_000.0, o.getConnections(), o.getStatements()));
+        sb.append('\n');
+        for (TransactionTreeNode child : children) {
+            child.render(sb, depth + 1);
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package hello.springtx.metrics;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * 요청(최외곽 트랜잭션)별 트랜잭션 트리 기록
+ * 1. 스레드별 스택으로 트리 구성 (REQUIRED 참여, REQUIRES_NEW, NESTED ...)
+ * 2. 최외곽 트랜잭션 종료 시 링 버퍼(최근 capacity 건, 락 없음)에 저장
+ * 3. 최외곽 트랜잭션이 롤백되면 트리를 로그로 출력
+ */
+@Slf4j
+public class TransactionTreeProfiler implements TransactionListener {
+
+    private final ThreadLocal<Deque<TransactionTreeNode>> inProgress = ThreadLocal.withInitial(ArrayDeque::new);
+    private final AtomicReferenceArray<TransactionTree> ring;
+    private final AtomicLong sequence = new AtomicLong();
+    private final boolean dumpOnRollback;
+
+    public TransactionTreeProfiler(int capacity, boolean dumpOnRollback) {
+        this.ring = new AtomicReferenceArray<>(capacity);
+        this.dumpOnRollback = dumpOnRollback;
+    }
+
+    @Override
+    public void onBegin(TransactionObservation observation) {
+        Deque<TransactionTreeNode> nodes = inProgress.get();
+        TransactionTreeNode node = new TransactionTreeNode(observation);
+        TransactionTreeNode parent = nodes.peek();
+        if (parent != null) {
+            parent.addChild(node);
+        }
+        nodes.push(node);
+    }
+
+    @Override
+    public void onComplete(TransactionObservation observation) {
+        Deque<TransactionTreeNode> nodes = inProgress.get();
+        TransactionTreeNode node;
+        // 종료되지 않은 하위 트랜잭션이 남아 있으면 함께 정리
+        do {
+            node = nodes.poll();
+            if (node == null) {
+                return;
+            }
+        } while (node.getObservation() != observation);
+
+        if (nodes.isEmpty()) {
+            publish(node);
+        }
+    }
+
+    private void publish(TransactionTreeNode root) {
+        long seq = sequence.getAndIncrement();
+        TransactionTree tree = new TransactionTree(seq, Thread.currentThread().getName(), root);
+        ring.set((int) (seq % ring.length()), tree);
+        if (dumpOnRollback && tree.isRolledBack()) {
+            log.info("트랜잭션 롤백\n{}", tree.render());
+        }
+    }
+
+    /**
+     * @return 최근 트리 (최신순)
+     */
+    public List<TransactionTree> recent() {
+        List<TransactionTree> trees = new ArrayList<>();
+        long last = sequence.get() - 1;
+        for (long seq = last; seq >= 0 && seq > last - ring.length(); seq--) {
+            TransactionTree tree = ring.get((int) (seq % ring.length()));
+            // 읽는 동안 덮어쓴 칸은 제외
+            if (tree != null && tree.getSequence() == seq) {
+                trees.add(tree);
+            }
+        }
+        return trees;
+    }
+}
@@ -0,0 +1,34 @@
+package hello.springtx.metrics.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Timespan;
+
+/**
+ * 커넥션 풀에서 커넥션 획득 (Hikari 는 획득 후 소요 시간만 전달 -> 이벤트 시각은 획득 완료 시점)
+ */
+@Name("hello.springtx.ConnectionCheckout")
+@Label("Connection Checkout")
+@Category({"Spring", "DataSource"})
+@Description("HikariCP getConnection")
+public class ConnectionCheckoutEvent extends Event {
+
+    @Label("Pool")
+    String pool;
+
+    @Label("Acquire Time")
+    @Timespan
+    long acquireTime;
+
+    public static void emit(String pool, long acquireNanos) {
+        ConnectionCheckoutEvent event = new ConnectionCheckoutEvent();
+        if (event.shouldCommit()) {
+            event.pool = pool;
+            event.acquireTime = acquireNanos;
+            event.commit();
+        }
+    }
+}
@@ -0,0 +1,127 @@
+package hello.springtx.metrics.jfr;
+
+import hello.springtx.metrics.TransactionListener;
+import hello.springtx.metrics.TransactionObservation;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+/**
+ * 트랜잭션 시작 / 커밋 / 롤백 / 보류 구간을 JFR 이벤트로 기록
+ * 녹화 중이 아니면 (이벤트 비활성화) 이벤트를 보관하지 않음
+ */
+public class JfrTransactionListener implements TransactionListener {
+
+    private final ThreadLocal<ThreadEvents> threadEvents = ThreadLocal.withInitial(ThreadEvents::new);
+
+    @Override
+    public void beforeBegin(TransactionDefinition definition) {
+        ThreadEvents events = threadEvents.get();
+
+        TransactionBeginEvent begin = new TransactionBeginEvent();
+        if (begin.isEnabled()) {
+            begin.begin();
+            events.begin = begin;
+        }
+
+        int propagation = definition == null
+                ? TransactionDefinition.PROPAGATION_REQUIRED
+                : definition.getPropagationBehavior();
+        if ((propagation == TransactionDefinition.PROPAGATION_REQUIRES_NEW
+                || propagation == TransactionDefinition.PROPAGATION_NOT_SUPPORTED)
+                && TransactionSynchronizationManager.isActualTransactionActive()) {
+            TransactionSuspendEvent suspend = new TransactionSuspendEvent();
+            if (suspend.isEnabled()) {
+                suspend.begin();
+                events.suspend = suspend;
+            }
+        }
+    }
+
+    @Override
+    public void onBegin(TransactionObservation observation) {
+        ThreadEvents events = threadEvents.get();
+
+        TransactionBeginEvent begin = events.begin;
+        events.begin = null;
+        if (begin != null) {
+            begin.end();
+            if (begin.shouldCommit()) {
+                begin.set(observation);
+                begin.connectionAcquire = observation.getAcquireNanos();
+                begin.commit();
+            }
+        }
+
+        TransactionSuspendEvent suspend = events.suspend;
+        events.suspend = null;
+        if (suspend != null && observation.isSuspended()) {
+            events.suspends.put(observation, suspend);
+        }
+    }
+
+    @Override
+    public void beforeCompletion(TransactionObservation observation) {
+        TransactionCommitEvent commit = new TransactionCommitEvent();
+        TransactionRollbackEvent rollback = new TransactionRollbackEvent();
+        if (commit.isEnabled() || rollback.isEnabled()) {
+            // 커밋 / 롤백은 종료 후에 결정 -> 둘 다 시작하고 하나만 기록
+            commit.begin();
+            rollback.begin();
+            threadEvents.get().completions.put(observation, new TransactionEvent[]{commit, rollback});
+        }
+    }
+
+    @Override
+    public void onComplete(TransactionObservation observation) {
+        ThreadEvents events = threadEvents.get();
+
+        TransactionEvent[] completion = events.completions.remove(observation);
+        if (completion != null) {
+            if (observation.isCommitted()) {
+                commit((TransactionCommitEvent) completion[0], observation);
+            } else {
+                rollback((TransactionRollbackEvent) completion[1], observation);
+            }
+        }
+
+        TransactionSuspendEvent suspend = events.suspends.remove(observation);
+        if (suspend != null) {
+            suspend.end();
+            if (suspend.shouldCommit()) {
+                suspend.set(observation);
+                suspend.commit();
+            }
+        }
+    }
+
+    private static void commit(TransactionCommitEvent event, TransactionObservation observation) {
+        event.end();
+        if (event.shouldCommit()) {
+            event.set(observation);
+            event.transactionDuration = observation.getDurationNanos();
+            event.commit();
+        }
+    }
+
+    private static void rollback(TransactionRollbackEvent event, TransactionObservation observation) {
+        event.end();
+        if (event.shouldCommit()) {
+            event.set(observation);
+            event.transactionDuration = observation.getDurationNanos();
+            event.rollbackOnly = observation.isRollbackOnly();
+            event.failure = observation.getFailure() == null ? null : observation.getFailure().getClass().getName();
+            event.commit();
+        }
+    }
+
+
+    private static class ThreadEvents {
+        private TransactionBeginEvent begin;
+        private TransactionSuspendEvent suspend;
+        private final Map<TransactionObservation, TransactionSuspendEvent> suspends = new IdentityHashMap<>();
+        private final Map<TransactionObservation, TransactionEvent[]> completions = new IdentityHashMap<>();
+    }
+}
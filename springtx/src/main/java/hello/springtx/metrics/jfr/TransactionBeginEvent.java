@@ -0,0 +1,21 @@
+package hello.springtx.metrics.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Timespan;
+
+/**
+ * getTransaction 구간 (기존 트랜잭션 보류 + 커넥션 획득 포함)
+ */
+@Name("hello.springtx.TransactionBegin")
+@Label("Transaction Begin")
+@Category({"Spring", "Transaction"})
+@Description("PlatformTransactionManager.getTransaction")
+public class TransactionBeginEvent extends TransactionEvent {
+
+    @Label("Connection Acquire")
+    @Timespan
+    long connectionAcquire;
+}
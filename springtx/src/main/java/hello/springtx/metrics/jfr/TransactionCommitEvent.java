@@ -0,0 +1,22 @@
+package hello.springtx.metrics.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Timespan;
+
+/**
+ * commit 구간 (flush 포함)
+ */
+@Name("hello.springtx.TransactionCommit")
+@Label("Transaction Commit")
+@Category({"Spring", "Transaction"})
+@Description("PlatformTransactionManager.commit")
+public class TransactionCommitEvent extends TransactionEvent {
+
+    @Label("Transaction Duration")
+    @Description("getTransaction ~ commit 종료")
+    @Timespan
+    long transactionDuration;
+}
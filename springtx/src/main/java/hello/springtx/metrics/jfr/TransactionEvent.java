@@ -0,0 +1,34 @@
+package hello.springtx.metrics.jfr;
+
+import hello.springtx.metrics.TransactionObservation;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+
+/**
+ * 트랜잭션 JFR 이벤트 공통 필드
+ */
+public abstract class TransactionEvent extends Event {
+
+    @Label("Method")
+    String method;
+
+    @Label("Propagation")
+    String propagation;
+
+    @Label("Isolation")
+    String isolation;
+
+    @Label("Read Only")
+    boolean readOnly;
+
+    @Label("Physical Transaction")
+    boolean physical;
+
+    void set(TransactionObservation observation) {
+        method = observation.getName();
+        propagation = observation.getPropagation().name();
+        isolation = observation.getIsolation().name();
+        readOnly = observation.isReadOnly();
+        physical = observation.isNewTransaction();
+    }
+}
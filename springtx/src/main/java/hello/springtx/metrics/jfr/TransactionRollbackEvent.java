@@ -0,0 +1,28 @@
+package hello.springtx.metrics.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Timespan;
+
+/**
+ * rollback 구간 (rollbackOnly 상태의 commit 호출 포함)
+ */
+@Name("hello.springtx.TransactionRollback")
+@Label("Transaction Rollback")
+@Category({"Spring", "Transaction"})
+@Description("PlatformTransactionManager.rollback, rollbackOnly 커밋")
+public class TransactionRollbackEvent extends TransactionEvent {
+
+    @Label("Transaction Duration")
+    @Description("getTransaction ~ rollback 종료")
+    @Timespan
+    long transactionDuration;
+
+    @Label("Rollback Only")
+    boolean rollbackOnly;
+
+    @Label("Failure")
+    String failure;
+}
@@ -0,0 +1,17 @@
+package hello.springtx.metrics.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * 기존 트랜잭션 보류 ~ 재개 구간 (REQUIRES_NEW, NOT_SUPPORTED)
+ * method 는 보류를 일으킨 안쪽 트랜잭션
+ */
+@Name("hello.springtx.TransactionSuspend")
+@Label("Transaction Suspend")
+@Category({"Spring", "Transaction"})
+@Description("외부 트랜잭션 보류 ~ 재개")
+public class TransactionSuspendEvent extends TransactionEvent {
+}
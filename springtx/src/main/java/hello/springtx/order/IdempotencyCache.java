@@ -0,0 +1,23 @@
+package hello.springtx.order;
+
+import hello.springtx.support.BoundedCache;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * 멱등성 키 -> 커밋된 주문 결과 (크기 LRU + TTL, stripes 개로 나누어 잠금)
+ *
+ * 전체 크기는 max-size, stripe 마다 max-size / stripes 까지 보관
+ * 커밋된 결과만 보관 (putAfterCommit) -> 롤백된 주문은 같은 키로 다시 처리 가능
+ */
+@Component
+public class IdempotencyCache extends BoundedCache<String, OrderReceipt> {
+
+    public IdempotencyCache(@Value("${springtx.order.idempotency.max-size:10000}") int maxSize,
+                            @Value("${springtx.order.idempotency.ttl:10m}") Duration ttl,
+                            @Value("${springtx.order.idempotency.stripes:16}") int stripes) {
+        super(maxSize, ttl, stripes);
+    }
+}
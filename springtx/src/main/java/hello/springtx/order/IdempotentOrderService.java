@@ -0,0 +1,67 @@
+package hello.springtx.order;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+
+import java.util.Optional;
+
+/**
+ * 멱등성 키로 주문 중복 처리 방지 (상위 시스템의 타임아웃 재시도)
+ *
+ * 1. IdempotencyCache 조회 : 최근 처리한 키면 트랜잭션 없이 저장된 결과 반환
+ * 2. 캐시 미스 : 키로 주문 조회 (uk_orders_idempotency_key 인덱스), 있으면 그 결과 반환
+ * 3. 없으면 OrderService.orderV2 로 주문 처리 (idempotency_key 저장)
+ *    동시에 같은 키로 들어온 요청은 유니크 제약 위반 -> 먼저 커밋된 주문 결과 반환
+ *
+ * 롤백된 주문(FAIL)은 기록이 남지 않으므로 같은 키로 다시 처리 가능
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class IdempotentOrderService {
+
+    private final OrderService orderService;
+    private final OrderRepository orderRepository;
+    private final IdempotencyCache idempotencyCache;
+
+    public OrderReceipt submit(String idempotencyKey, Order order) {
+        OrderReceipt cached = idempotencyCache.get(idempotencyKey);
+        if (cached != null) {
+            return cached.replay();
+        }
+
+        Optional<OrderReceipt> stored = findStored(idempotencyKey);
+        if (stored.isPresent()) {
+            idempotencyCache.putAfterCommit(idempotencyKey, stored.get());
+            return stored.get().replay();
+        }
+
+        order.setIdempotencyKey(idempotencyKey);
+        OrderResult result;
+        try {
+            result = orderService.orderV2(order);
+        } catch (DataIntegrityViolationException e) {
+            log.info("중복 주문 요청. idempotencyKey={}", idempotencyKey);
+            return findStored(idempotencyKey).map(OrderReceipt::replay).orElseThrow(() -> e);
+        }
+
+        if (result == OrderResult.FAIL) {
+            // 롤백된 주문 : persist 시 할당된 ID 는 저장되지 않았으므로 반환하지 않음
+            return new OrderReceipt(null, result, false);
+        }
+        OrderReceipt receipt = new OrderReceipt(order.getId(), result, false);
+        idempotencyCache.putAfterCommit(idempotencyKey, receipt);
+        return receipt;
+    }
+
+    private Optional<OrderReceipt> findStored(String idempotencyKey) {
+        return orderRepository.findByIdempotencyKey(idempotencyKey)
+                .map(order -> new OrderReceipt(order.getId(), toResult(order.getPayStatus()), false));
+    }
+
+    private static OrderResult toResult(PayStatus payStatus) {
+        return payStatus == PayStatus.COMPLETE ? OrderResult.COMPLETE : OrderResult.WAIT;
+    }
+}
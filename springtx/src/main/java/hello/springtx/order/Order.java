@@ -1,24 +1,47 @@
 package hello.springtx.order;
 
+import hello.springtx.jpa.PooledSequenceGenerator;
 import lombok.Getter;
 import lombok.Setter;
+import org.hibernate.annotations.GenericGenerator;
+import org.hibernate.annotations.Parameter;
+import org.hibernate.id.enhanced.SequenceStyleGenerator;
 
+import javax.persistence.Column;
 import javax.persistence.Entity;
 import javax.persistence.GeneratedValue;
+import javax.persistence.GenerationType;
 import javax.persistence.Id;
+import javax.persistence.Index;
 import javax.persistence.Table;
+import javax.persistence.UniqueConstraint;
+import javax.persistence.Version;
 
 @Entity
-@Table(name = "orders")
+// 대기 주문 조회 (pay_status = 1 AND id > ? ORDER BY id) : H2 는 부분 인덱스 미지원 -> (pay_status, id) 복합 인덱스
+@Table(name = "orders",
+        indexes = @Index(name = "idx_orders_pay_status_id", columnList = "pay_status, id"),
+        uniqueConstraints = @UniqueConstraint(name = "uk_orders_idempotency_key", columnNames = "idempotency_key"))
 @Getter
 @Setter
 public class Order {
 
     @Id
-    @GeneratedValue
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "orders_seq")
+    @GenericGenerator(name = "orders_seq", strategy = PooledSequenceGenerator.STRATEGY,
+            parameters = @Parameter(name = SequenceStyleGenerator.SEQUENCE_PARAM, value = "orders_seq"))
     private Long id;
 
+    // 낙관적 락 : 동시 상태 변경(결제 재시도, 대기 주문 재처리) 시 늦게 커밋한 쪽이 OptimisticLockException
+    @Version
+    private Long version;
+
     private String username;    // 정상, 예외, 잔고부족
-    private String payStatus;   // 대기, 완료
+    @Column(name = "pay_status")
+    private PayStatus payStatus;    // 대기(1), 완료(2)
+
+    // 호출자가 재시도마다 같은 값을 보내는 멱등성 키 (IdempotentOrderService), 없으면 null
+    @Column(name = "idempotency_key", length = 64)
+    private String idempotencyKey;
 
 }
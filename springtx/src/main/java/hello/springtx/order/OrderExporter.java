@@ -0,0 +1,187 @@
+package hello.springtx.order;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.ToString;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.util.unit.DataSize;
+
+import javax.persistence.EntityManager;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Iterator;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * orders 전체를 CSV 로 내보내기 (행 수와 무관하게 힙 사용량 일정)
+ *
+ * 조회 : 읽기 전용 트랜잭션 + OrderRepository.streamAll (fetch size 단위로 DB 에서 가져옴)
+ *        fetch size 건마다 EntityManager.clear -> 영속성 컨텍스트에 엔티티가 쌓이지 않음
+ * 쓰기 : 행마다 재사용하는 StringBuilder 를 direct ByteBuffer 에 UTF-8 인코딩, 가득 차면 FileChannel 에 write
+ *
+ * 컬럼 : id,username,pay_status,version,idempotency_key (pay_status 는 code)
+ */
+@Slf4j
+@Service
+public class OrderExporter {
+
+    static final String HEADER = "id,username,pay_status,version,idempotency_key";
+
+    private final OrderRepository orderRepository;
+    private final EntityManager em;
+    private final int bufferSize;
+
+    public OrderExporter(OrderRepository orderRepository, EntityManager em,
+                         @Value("${springtx.order.export.buffer-size:256KB}") DataSize bufferSize) {
+        this.orderRepository = orderRepository;
+        this.em = em;
+        this.bufferSize = (int) bufferSize.toBytes();
+    }
+
+    @Transactional(readOnly = true)
+    public ExportReport exportCsv(Path file) {
+        long start = System.nanoTime();
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING);
+             Stream<Order> orders = orderRepository.streamAll()) {
+            CsvWriter writer = new CsvWriter(channel, bufferSize);
+            writer.line().append(HEADER);
+            writer.endLine();
+
+            long rows = 0;
+            Iterator<Order> iterator = orders.iterator();
+            while (iterator.hasNext()) {
+                writeRow(writer, iterator.next());
+                if (++rows % OrderRepository.STREAM_FETCH_SIZE == 0) {
+                    em.clear();
+                }
+            }
+            writer.flush();
+
+            long elapsedNanos = System.nanoTime() - start;
+            ExportReport report = new ExportReport(rows, channel.size(), TimeUnit.NANOSECONDS.toMillis(elapsedNanos),
+                    elapsedNanos == 0 ? 0 : rows * 1_000_000_000.0 / elapsedNanos);
+            log.info("order export finished. file={}, {}", file, report);
+            return report;
+        } catch (IOException e) {
+            throw new UncheckedIOException("order export failed. file=" + file, e);
+        }
+    }
+
+    private void writeRow(CsvWriter writer, Order order) throws IOException {
+        StringBuilder line = writer.line();
+        line.append(order.getId()).append(',');
+        appendQuoted(line, order.getUsername());
+        line.append(',');
+        if (order.getPayStatus() != null) {
+            line.append(order.getPayStatus().getCode());
+        }
+        line.append(',');
+        if (order.getVersion() != null) {
+            line.append(order.getVersion());
+        }
+        line.append(',');
+        appendQuoted(line, order.getIdempotencyKey());
+        writer.endLine();
+    }
+
+    // RFC 4180 : 쉼표, 따옴표, 줄바꿈이 있으면 따옴표로 감싸고 따옴표는 두 번
+    private static void appendQuoted(StringBuilder line, String value) {
+        if (value == null) {
+            return;
+        }
+        boolean quote = false;
+        for (int i = 0; i < value.length() && !quote; i++) {
+            char c = value.charAt(i);
+            quote = c == ',' || c == '"' || c == '\n' || c == '\r';
+        }
+        if (!quote) {
+            line.append(value);
+            return;
+        }
+        line.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"') {
+                line.append('"');
+            }
+            line.append(c);
+        }
+        line.append('"');
+    }
+
+
+    /**
+     * 행 단위 버퍼링 쓰기 (행마다 String/byte[] 생성 없음)
+     */
+    private static class CsvWriter {
+
+        private final FileChannel channel;
+        private final ByteBuffer buffer;
+        private final CharsetEncoder encoder = StandardCharsets.UTF_8.newEncoder();
+        private final StringBuilder line = new StringBuilder(128);
+
+        CsvWriter(FileChannel channel, int bufferSize) {
+            this.channel = channel;
+            this.buffer = ByteBuffer.allocateDirect(bufferSize);
+        }
+
+        StringBuilder line() {
+            line.setLength(0);
+            return line;
+        }
+
+        void endLine() throws IOException {
+            line.append('\n');
+            CharBuffer chars = CharBuffer.wrap(line);
+            while (true) {
+                CoderResult result = encoder.encode(chars, buffer, true);
+                if (result.isOverflow()) {
+                    drain();
+                    continue;
+                }
+                if (result.isError()) {
+                    result.throwException();
+                }
+                break;
+            }
+            encoder.reset();
+        }
+
+        void flush() throws IOException {
+            drain();
+            channel.force(false);
+        }
+
+        private void drain() throws IOException {
+            buffer.flip();
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            buffer.clear();
+        }
+    }
+
+
+    @Getter
+    @ToString
+    @RequiredArgsConstructor
+    public static class ExportReport {
+        private final long rows;
+        private final long bytes;
+        private final long elapsedMillis;
+        private final double rowsPerSecond;
+    }
+}
@@ -0,0 +1,24 @@
+package hello.springtx.order;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.ToString;
+
+/**
+ * IdempotentOrderService.submit 결과
+ * orderId  : 저장된 주문 ID, FAIL(롤백) 이면 null
+ * replayed : 같은 멱등성 키로 이미 처리된 주문의 결과를 돌려준 경우 true (새 주문 X)
+ */
+@Getter
+@ToString
+@RequiredArgsConstructor
+public class OrderReceipt {
+
+    private final Long orderId;
+    private final OrderResult result;
+    private final boolean replayed;
+
+    OrderReceipt replay() {
+        return replayed ? this : new OrderReceipt(orderId, result, true);
+    }
+}
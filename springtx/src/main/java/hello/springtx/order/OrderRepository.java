@@ -1,6 +1,43 @@
 package hello.springtx.order;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
+import javax.persistence.QueryHint;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 public interface OrderRepository extends JpaRepository<Order, Long> {
+
+    // streamAll 의 JDBC fetch size (한 번에 가져오는 행 수)
+    int STREAM_FETCH_SIZE = 1000;
+
+    // 키셋 페이지 : idx_orders_pay_status_id 범위 스캔 (OFFSET 없음)
+    List<Order> findByPayStatusAndIdGreaterThanOrderByIdAsc(PayStatus payStatus, Long id, Pageable pageable);
+
+    // 키셋 페이지 ID 만 조회 (인덱스만으로 처리)
+    @Query("SELECT o.id FROM Order o WHERE o.payStatus = :payStatus AND o.id > :afterId ORDER BY o.id")
+    List<Long> findIdsByPayStatusAfter(@Param("payStatus") PayStatus payStatus, @Param("afterId") Long afterId,
+                                       Pageable pageable);
+
+    // 상태 재확인 : 다른 작업자/인스턴스가 이미 처리한 주문은 제외 (동시 변경은 @Version 으로 검출)
+    List<Order> findByIdInAndPayStatus(Collection<Long> ids, PayStatus payStatus);
+
+    Optional<Order> findByIdempotencyKey(String idempotencyKey);
+
+    /**
+     * 전체 주문 id 순 스트리밍 (트랜잭션 안에서 사용, 사용 후 close)
+     * 읽기 전용 : 스냅샷/더티 체크 없음, 호출자가 주기적으로 EntityManager.clear
+     */
+    @QueryHints({
+            @QueryHint(name = org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE, value = "" + STREAM_FETCH_SIZE),
+            @QueryHint(name = org.hibernate.jpa.QueryHints.HINT_READONLY, value = "true")
+    })
+    @Query("SELECT o FROM Order o ORDER BY o.id")
+    Stream<Order> streamAll();
 }
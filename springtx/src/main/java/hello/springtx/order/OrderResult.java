@@ -0,0 +1,11 @@
+package hello.springtx.order;
+
+/**
+ * OrderService.orderAll 주문별 결과
+ * COMPLETE : 정상 승인 (완료로 커밋)
+ * WAIT     : 잔고 부족 (대기로 커밋)
+ * FAIL     : 시스템 예외 (세이브포인트로 해당 주문만 롤백)
+ */
+public enum OrderResult {
+    COMPLETE, WAIT, FAIL
+}
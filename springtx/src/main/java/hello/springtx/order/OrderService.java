@@ -1,42 +1,183 @@
 package hello.springtx.order;
 
-import lombok.RequiredArgsConstructor;
+import hello.springtx.tx.RetryOnConflict;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.interceptor.TransactionAspectSupport;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import javax.transaction.Transactional;
+import java.util.List;
 
 @Slf4j
 @Service
-@RequiredArgsConstructor
 public class OrderService {
 
     private final OrderRepository orderRepository;
+    private final TransactionTemplate chunkTemplate;
+    private final int chunkSize;
+
+    public OrderService(OrderRepository orderRepository, PlatformTransactionManager txManager,
+                        @Value("${springtx.order.batch.chunk-size:100}") int chunkSize) {
+        this.orderRepository = orderRepository;
+        this.chunkTemplate = new TransactionTemplate(txManager);
+        this.chunkTemplate.setName("OrderService.orderAll");
+        // 청크 재실행은 청크 트랜잭션 전체 롤백이 전제 -> 외부 트랜잭션에 참여하지 않음
+        this.chunkTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.chunkSize = chunkSize;
+    }
 
 
     // JPA 경우, 트랜젝션 Commit 시점에 Order 데이터를 DB 반영
     @Transactional
     public void order(Order order) throws NotEnoughMoneyException {
         log.info("Call order");
+        payOrThrow(order);
+    }
+
+    /**
+     * 여러 주문을 chunk-size 단위 트랜잭션으로 처리, 예외를 던지지 않고 주문별 결과 반환
+     * 주문마다 세이브포인트 : 시스템 예외는 해당 주문만 롤백(FAIL), 잔고 부족은 대기로 저장(WAIT)
+     * JPA 예외로 트랜잭션 전체가 rollbackOnly 가 되면 실패한 주문을 빼고 청크를 다시 실행
+     *
+     * 청크는 항상 새 트랜잭션 (REQUIRES_NEW) : 이미 트랜잭션 안에서 호출해도 외부 트랜잭션은 보류되고
+     * 청크마다 바로 커밋, 외부 트랜잭션이 롤백되어도 커밋된 청크는 유지된다
+     */
+    public OrderResult[] orderAll(List<Order> orders) {
+        OrderResult[] results = new OrderResult[orders.size()];
+        for (int from = 0; from < orders.size(); from += chunkSize) {
+            int to = Math.min(from + chunkSize, orders.size());
+            orderChunk(orders, from, to, results);
+        }
+        return results;
+    }
+
+    private void orderChunk(List<Order> orders, int from, int to, OrderResult[] results) {
+        boolean retry = true;
+        while (retry) {
+            retry = Boolean.TRUE.equals(chunkTemplate.execute(status -> orderChunk(status, orders, from, to, results)));
+            if (retry) {
+                // 롤백된 주문은 할당된 ID 를 버리고 새 엔티티로 다시 저장 (merge 방지)
+                for (int i = from; i < to; i++) {
+                    if (results[i] != OrderResult.FAIL) {
+                        orders.get(i).setId(null);
+                        orders.get(i).setVersion(null);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * @return 청크를 다시 실행해야 하면 true (트랜잭션 전체가 rollbackOnly)
+     */
+    private boolean orderChunk(TransactionStatus status, List<Order> orders, int from, int to, OrderResult[] results) {
+        for (int i = from; i < to; i++) {
+            if (results[i] == OrderResult.FAIL) {
+                continue;
+            }
+            Order order = orders.get(i);
+            Object savepoint = status.createSavepoint();
+            try {
+                results[i] = pay(order);
+                if (results[i] == OrderResult.FAIL) {
+                    status.rollbackToSavepoint(savepoint);
+                    continue;
+                }
+                status.flush();   // 주문의 SQL 오류가 이 주문의 세이브포인트 안에서 발생하도록
+                status.releaseSavepoint(savepoint);
+            } catch (RuntimeException e) {
+                log.info("주문 실패. username={}", order.getUsername(), e);
+                results[i] = OrderResult.FAIL;
+                if (status.isRollbackOnly()) {
+                    status.setRollbackOnly();
+                    return true;
+                }
+                status.rollbackToSavepoint(savepoint);
+            }
+        }
+        return false;
+    }
+
+    /**
+     * order 와 같은 커밋/롤백 결과를 예외 없이 반환 (예외 생성, 스택 트레이스, 롤백 규칙 평가 비용 없음)
+     * COMPLETE : 완료로 커밋
+     * WAIT     : 대기로 커밋 (NotEnoughMoneyException 대신)
+     * FAIL     : setRollbackOnly 로 롤백 (RuntimeException 대신)
+     *
+     * 외부 트랜잭션에 참여한 경우 FAIL 은 외부 트랜잭션 전체를 rollbackOnly 로 만든다 (예외 전파와 동일)
+     */
+    @Transactional
+    public OrderResult orderV2(Order order) {
+        OrderResult result = pay(order);
+        if (result == OrderResult.FAIL) {
+            TransactionAspectSupport.currentTransactionStatus().setRollbackOnly();
+        }
+        return result;
+    }
+
+    /**
+     * 대기 주문 결제 재시도 (결제 콜백 등), 대기가 아니면 현재 상태만 반환
+     * 대기 주문 재처리 작업과 동시에 같은 주문을 변경하면 @Version 충돌 -> 트랜잭션 전체 재시도
+     */
+    @RetryOnConflict
+    @Transactional
+    public OrderResult retryPayment(Long orderId) {
+        Order order = orderRepository.findById(orderId)
+                .orElseThrow(() -> new IllegalArgumentException("order not found. id=" + orderId));
+        if (order.getPayStatus() != PayStatus.WAIT) {
+            return order.getPayStatus() == PayStatus.COMPLETE ? OrderResult.COMPLETE : OrderResult.FAIL;
+        }
+        OrderResult result = pay(order);
+        if (result == OrderResult.FAIL) {
+            TransactionAspectSupport.currentTransactionStatus().setRollbackOnly();
+        }
+        return result;
+    }
+
+    /**
+     * 대기 주문 결제 재시도 (PendingOrderReconciler), 호출자 트랜잭션 안에서 실행
+     * FAIL 이면 주문을 변경하지 않음 (대기 유지)
+     */
+    public OrderResult retryPayment(Order order) {
+        return pay(order);
+    }
+
+    private void payOrThrow(Order order) throws NotEnoughMoneyException {
+        OrderResult result = pay(order);
+        if (result == OrderResult.FAIL) {
+            throw new RuntimeException("시스템 예외");
+        }
+        if (result == OrderResult.WAIT) {
+            throw new NotEnoughMoneyException("잔고가 부족합니다.");
+        }
+    }
+
+    private OrderResult pay(Order order) {
         orderRepository.save(order);
 
         log.info("============== 결제 프로세스 진입 ==============");
         // 시스템 예외
         if (order.getUsername().equals("예외")) {
             log.info("시스템 예외 발생");
-            throw new RuntimeException("시스템 예외");
+            return OrderResult.FAIL;
         }
         // 비지니스 예외
         else if (order.getUsername().equals("잔고부족")) {
             log.info("잔고 부족 비지니스 예외 발생");
-            order.setPayStatus("대기");
-            throw new NotEnoughMoneyException("잔고가 부족합니다.");
+            order.setPayStatus(PayStatus.WAIT);
+            return OrderResult.WAIT;
         }
         // 정상 승인
         else {
             log.info("정상 승인");
-            order.setPayStatus("완료");
+            order.setPayStatus(PayStatus.COMPLETE);
         }
         log.info("============== 결제 프로세스 완료 ==============");
+        return OrderResult.COMPLETE;
     }
 }
@@ -0,0 +1,27 @@
+package hello.springtx.order;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * 결제 상태 : DB 에는 code(smallint) 로 저장 (PayStatusConverter)
+ * code 는 저장된 값이므로 변경 금지, 새 상태는 새 code 로 추가
+ */
+@Getter
+@RequiredArgsConstructor
+public enum PayStatus {
+
+    WAIT((short) 1, "대기"),
+    COMPLETE((short) 2, "완료");
+
+    private final short code;
+    private final String description;
+
+    public static PayStatus fromCode(short code) {
+        switch (code) {
+            case 1: return WAIT;
+            case 2: return COMPLETE;
+            default: throw new IllegalArgumentException("unknown pay status code. code=" + code);
+        }
+    }
+}
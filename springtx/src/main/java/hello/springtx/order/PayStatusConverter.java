@@ -0,0 +1,22 @@
+package hello.springtx.order;
+
+import javax.persistence.AttributeConverter;
+import javax.persistence.Converter;
+
+/**
+ * PayStatus <-> smallint
+ * EnumType.ORDINAL 은 선언 순서에 의존, EnumType.STRING 은 행 크기 증가 -> 고정 code 사용
+ */
+@Converter(autoApply = true)
+public class PayStatusConverter implements AttributeConverter<PayStatus, Short> {
+
+    @Override
+    public Short convertToDatabaseColumn(PayStatus status) {
+        return status == null ? null : status.getCode();
+    }
+
+    @Override
+    public PayStatus convertToEntityAttribute(Short code) {
+        return code == null ? null : PayStatus.fromCode(code);
+    }
+}
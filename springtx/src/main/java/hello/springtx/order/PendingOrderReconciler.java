@@ -0,0 +1,210 @@
+package hello.springtx.order;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.ToString;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * springtx.order.reconcile.enabled=true
+ * 잔고 부족으로 대기 상태인 주문의 결제를 interval 마다 재시도
+ *
+ * 조회 : 스캔 스레드가 (pay_status, id) 인덱스로 대기 주문 ID 를 chunk-size 씩 키셋 조회 (id > 마지막 id, OFFSET 없음)
+ * 처리 : 청크를 작업자(parallelism 개)에게 전달, 청크마다 짧은 트랜잭션 1개
+ *        청크는 서로 겹치지 않는 ID 범위 -> 작업자 간 중복 처리 없음
+ *        대기 상태 재확인 -> 다른 인스턴스가 먼저 처리한 주문 제외
+ *        결제 재시도(OrderService.retryPayment)와 동시에 변경하면 @Version 충돌 -> 청크를 다시 조회해서 재시도
+ * 배압 : 처리 중인 청크가 parallelism 개면 스캔 대기 (미리 읽는 청크 수 제한)
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "springtx.order.reconcile.enabled", havingValue = "true")
+public class PendingOrderReconciler implements SmartLifecycle {
+
+    private static final int MAX_CHUNK_ATTEMPTS = 3;
+
+    private final OrderRepository orderRepository;
+    private final OrderService orderService;
+    private final TransactionTemplate chunkTemplate;
+    private final int chunkSize;
+    private final int parallelism;
+    private final Duration interval;
+
+    private volatile ReconcileReport lastReport;
+    private ExecutorService workers;
+    private ScheduledExecutorService scheduler;
+
+    public PendingOrderReconciler(OrderRepository orderRepository, OrderService orderService,
+                                  PlatformTransactionManager txManager,
+                                  @Value("${springtx.order.reconcile.chunk-size:500}") int chunkSize,
+                                  @Value("${springtx.order.reconcile.parallelism:4}") int parallelism,
+                                  @Value("${springtx.order.reconcile.interval:1m}") Duration interval) {
+        this.orderRepository = orderRepository;
+        this.orderService = orderService;
+        this.chunkTemplate = new TransactionTemplate(txManager);
+        this.chunkTemplate.setName("PendingOrderReconciler.chunk");
+        this.chunkSize = chunkSize;
+        this.parallelism = parallelism;
+        this.interval = interval;
+    }
+
+    /**
+     * 대기 주문 전체를 한 번 처리 (동시 실행 X)
+     */
+    public synchronized ReconcileReport reconcile() {
+        LongAdder scanned = new LongAdder();
+        LongAdder completed = new LongAdder();
+        LongAdder failed = new LongAdder();
+        Semaphore inFlight = new Semaphore(parallelism);
+        long start = System.nanoTime();
+
+        long afterId = Long.MIN_VALUE;
+        try {
+            while (true) {
+                List<Long> ids = orderRepository.findIdsByPayStatusAfter(PayStatus.WAIT, afterId, PageRequest.of(0, chunkSize));
+                if (ids.isEmpty()) {
+                    break;
+                }
+                afterId = ids.get(ids.size() - 1);
+                scanned.add(ids.size());
+
+                inFlight.acquire();
+                workers.execute(() -> {
+                    try {
+                        completed.add(reconcileChunk(ids));
+                    } catch (RuntimeException e) {
+                        log.warn("pending order chunk failed. ids={}..{}", ids.get(0), ids.get(ids.size() - 1), e);
+                        failed.add(ids.size());
+                    } finally {
+                        inFlight.release();
+                    }
+                });
+                if (ids.size() < chunkSize) {
+                    break;
+                }
+            }
+            // 처리 중인 청크 완료 대기
+            inFlight.acquire(parallelism);
+            inFlight.release(parallelism);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            log.warn("pending order reconcile interrupted");
+        }
+
+        long elapsedNanos = System.nanoTime() - start;
+        ReconcileReport report = new ReconcileReport(scanned.sum(), completed.sum(), failed.sum(),
+                TimeUnit.NANOSECONDS.toMillis(elapsedNanos),
+                elapsedNanos == 0 ? 0 : scanned.sum() * 1_000_000_000.0 / elapsedNanos);
+        lastReport = report;
+        log.info("pending order reconcile finished. {}", report);
+        return report;
+    }
+
+    /**
+     * @return 완료 처리한 주문 수
+     */
+    private int reconcileChunk(List<Long> ids) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return reconcileChunkOnce(ids);
+            } catch (ConcurrencyFailureException e) {
+                if (attempt >= MAX_CHUNK_ATTEMPTS) {
+                    throw e;
+                }
+                log.debug("pending order chunk conflict. retry attempt={}", attempt);
+            }
+        }
+    }
+
+    private int reconcileChunkOnce(List<Long> ids) {
+        Integer completed = chunkTemplate.execute(status -> {
+            int count = 0;
+            for (Order order : orderRepository.findByIdInAndPayStatus(ids, PayStatus.WAIT)) {
+                if (orderService.retryPayment(order) == OrderResult.COMPLETE) {
+                    count++;
+                }
+            }
+            return count;
+        });
+        return completed == null ? 0 : completed;
+    }
+
+    public ReconcileReport lastReport() {
+        return lastReport;
+    }
+
+    @Override
+    public void start() {
+        AtomicInteger sequence = new AtomicInteger();
+        workers = Executors.newFixedThreadPool(parallelism, runnable -> {
+            Thread thread = new Thread(runnable, "pending-order-worker-" + sequence.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "pending-order-reconciler");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(this::reconcileSafely,
+                interval.toMillis(), interval.toMillis(), TimeUnit.MILLISECONDS);
+        log.info("pending order reconciler started. chunkSize={}, parallelism={}, interval={}",
+                chunkSize, parallelism, interval);
+    }
+
+    @Override
+    public void stop() {
+        scheduler.shutdownNow();
+        workers.shutdown();
+        try {
+            workers.awaitTermination(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        scheduler = null;
+        workers = null;
+    }
+
+    @Override
+    public boolean isRunning() {
+        return scheduler != null;
+    }
+
+    private void reconcileSafely() {
+        try {
+            reconcile();
+        } catch (RuntimeException e) {
+            log.warn("pending order reconcile failed", e);
+        }
+    }
+
+
+    @Getter
+    @ToString
+    @RequiredArgsConstructor
+    public static class ReconcileReport {
+        private final long scanned;
+        private final long completed;
+        private final long failed;
+        private final long elapsedMillis;
+        private final double rowsPerSecond;
+    }
+}
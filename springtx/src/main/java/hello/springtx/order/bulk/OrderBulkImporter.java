@@ -0,0 +1,357 @@
+package hello.springtx.order.bulk;
+
+import hello.springtx.order.Order;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.ToString;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.id.IdentifierGenerator;
+import org.hibernate.id.enhanced.PooledLoOptimizer;
+import org.hibernate.id.enhanced.SequenceStyleGenerator;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.unit.DataSize;
+
+import javax.persistence.EntityManagerFactory;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Path;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * CSV 파일(username,payStatus) -> orders 일괄 등록
+ *
+ * 1. 파싱 : 호출 스레드가 파일을 메모리 맵으로 읽어 chunk-size 건씩 OrderImportBatch 에 채움 (OrderCsvParser)
+ * 2. 전달 : queue-capacity 크기의 큐로 작업자에게 전달 (작업자가 밀리면 파서 대기), 배치 객체는 재사용
+ * 3. 쓰기 : 작업자(writers 개)가 청크마다 트랜잭션 1개로 JDBC batch insert (EntityManager, 영속성 컨텍스트 사용 X)
+ *          ID 는 orders_seq 에서 pooled-lo 로 할당 (Hibernate 의 Order ID 생성기에서 읽은 시퀀스, 할당 크기)
+ *
+ * 재개 : 청크 insert 와 같은 트랜잭션에서 order_import_chunk 에 커밋 기록
+ *        같은 importId 로 다시 실행하면 커밋된 청크는 건너뜀 (청크 경계는 chunk-size 로 결정)
+ * 보고 : rows/sec, 실행 중 GC 횟수/시간, 파서 + 작업자 스레드 할당량
+ */
+@Slf4j
+@Service
+public class OrderBulkImporter {
+
+    private static final String INSERT_ORDER =
+            "INSERT INTO orders (id, version, username, pay_status) VALUES (?, 0, ?, ?)";
+    private static final String INSERT_CHUNK =
+            "INSERT INTO order_import_chunk (import_id, chunk_index, chunk_size, row_count, committed_at) VALUES (?, ?, ?, ?, ?)";
+    private static final String SELECT_CHUNKS =
+            "SELECT chunk_index, chunk_size FROM order_import_chunk WHERE import_id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate chunkTemplate;
+    private final PooledLoIdAllocator idAllocator;
+    private final int chunkSize;
+    private final int writers;
+    private final int queueCapacity;
+    private final long mapWindow;
+
+    public OrderBulkImporter(JdbcTemplate jdbcTemplate, PlatformTransactionManager txManager,
+                             EntityManagerFactory entityManagerFactory,
+                             @Value("${springtx.order.import.chunk-size:1000}") int chunkSize,
+                             @Value("${springtx.order.import.writers:4}") int writers,
+                             @Value("${springtx.order.import.queue-capacity:8}") int queueCapacity,
+                             @Value("${springtx.order.import.map-window:256MB}") DataSize mapWindow) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.chunkTemplate = new TransactionTemplate(txManager);
+        this.chunkTemplate.setName("OrderBulkImporter.chunk");
+        this.idAllocator = orderIdAllocator(jdbcTemplate, entityManagerFactory.unwrap(SessionFactoryImplementor.class));
+        this.chunkSize = chunkSize;
+        this.writers = writers;
+        this.queueCapacity = queueCapacity;
+        this.mapWindow = mapWindow.toBytes();
+    }
+
+    /**
+     * Order 엔티티의 ID 생성기에서 시퀀스 이름, 할당 크기를 가져옴 (설정값을 다시 읽지 않음)
+     * pooled-lo 가 아니면 Hibernate 와 ID 가 겹칠 수 있으므로 시작 실패
+     */
+    private static PooledLoIdAllocator orderIdAllocator(JdbcTemplate jdbcTemplate, SessionFactoryImplementor sessionFactory) {
+        IdentifierGenerator generator = sessionFactory.getMetamodel().entityPersister(Order.class).getIdentifierGenerator();
+        if (!(generator instanceof SequenceStyleGenerator)
+                || !(((SequenceStyleGenerator) generator).getOptimizer() instanceof PooledLoOptimizer)) {
+            throw new IllegalStateException("Order id generator is not a pooled-lo sequence. generator=" + generator);
+        }
+        SequenceStyleGenerator sequence = (SequenceStyleGenerator) generator;
+        String nextValueSql = sessionFactory.getJdbcServices().getDialect()
+                .getSequenceNextValString(sequence.getDatabaseStructure().getName());
+        int allocationSize = sequence.getOptimizer().getIncrementSize();
+        log.info("order import id sequence={}, allocationSize={}", sequence.getDatabaseStructure().getName(), allocationSize);
+        return new PooledLoIdAllocator(jdbcTemplate, nextValueSql, allocationSize);
+    }
+
+    public ImportReport importCsv(Path file) {
+        return importCsv(file, file.getFileName().toString());
+    }
+
+    /**
+     * @param importId 재개 기준 (같은 importId 의 커밋된 청크는 건너뜀)
+     */
+    public ImportReport importCsv(Path file, String importId) {
+        Set<Long> committed = committedChunks(importId);
+        long gcCountBefore = gcCount();
+        long gcMillisBefore = gcMillis();
+        long allocatedBefore = threadAllocatedBytes();
+        long start = System.nanoTime();
+
+        BlockingQueue<OrderImportBatch> queue = new ArrayBlockingQueue<>(queueCapacity);
+        BlockingQueue<OrderImportBatch> free = new ArrayBlockingQueue<>(queueCapacity + writers + 1);
+        for (int i = 0; i < queueCapacity + writers + 1; i++) {
+            free.add(new OrderImportBatch(chunkSize));
+        }
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        AtomicReference<Throwable> writerFailure = new AtomicReference<>();
+        LongAdder inserted = new LongAdder();
+        LongAdder chunks = new LongAdder();
+        LongAdder allocated = new LongAdder();
+
+        List<Thread> threads = new ArrayList<>(writers);
+        for (int i = 0; i < writers; i++) {
+            Thread thread = new Thread(() -> runWriter(importId, queue, free, writerFailure, inserted, chunks, allocated),
+                    "order-import-writer-" + (i + 1));
+            thread.setDaemon(true);
+            thread.start();
+            threads.add(thread);
+        }
+
+        // 파싱 실패 시에도 이미 전달된(완성된) 청크는 커밋, 작업자 실패 시에는 파싱 중단
+        BatchSink sink = new BatchSink(committed, queue, free, writerFailure);
+        try {
+            new OrderCsvParser(mapWindow).parse(file, sink);
+            sink.finish();
+        } catch (IOException e) {
+            failure.compareAndSet(null, new UncheckedIOException("order import read failed. file=" + file, e));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            failure.compareAndSet(null, e);
+        } catch (RuntimeException e) {
+            failure.compareAndSet(null, e);
+        } finally {
+            stopWriters(queue, threads);
+        }
+
+        long elapsedNanos = System.nanoTime() - start;
+        allocated.add(threadAllocatedBytes() - allocatedBefore);
+        ImportReport report = new ImportReport(importId, inserted.sum(), chunks.sum(), sink.skippedChunks,
+                TimeUnit.NANOSECONDS.toMillis(elapsedNanos),
+                elapsedNanos == 0 ? 0 : inserted.sum() * 1_000_000_000.0 / elapsedNanos,
+                gcCount() - gcCountBefore, gcMillis() - gcMillisBefore, allocated.sum());
+
+        Throwable cause = writerFailure.get() != null ? writerFailure.get() : failure.get();
+        if (cause != null) {
+            log.warn("order import failed. file={}, {}", file, report);
+            throw new IllegalStateException("order import failed. importId=" + importId
+                    + ", committedChunks=" + report.getChunks(), cause);
+        }
+        log.info("order import finished. file={}, {}", file, report);
+        return report;
+    }
+
+    private void runWriter(String importId, BlockingQueue<OrderImportBatch> queue, BlockingQueue<OrderImportBatch> free,
+                           AtomicReference<Throwable> writerFailure, LongAdder inserted, LongAdder chunks, LongAdder allocated) {
+        long allocatedBefore = threadAllocatedBytes();
+        long[] ids = new long[chunkSize];
+        try {
+            while (true) {
+                OrderImportBatch batch = queue.take();
+                if (batch == OrderImportBatch.END) {
+                    break;
+                }
+                try {
+                    if (writerFailure.get() == null) {
+                        writeChunk(importId, batch, ids);
+                        inserted.add(batch.size);
+                        chunks.increment();
+                    }
+                } catch (RuntimeException | Error e) {
+                    log.warn("order import chunk failed. chunk={}", batch.chunkIndex, e);
+                    writerFailure.compareAndSet(null, e);
+                } finally {
+                    free.add(batch);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            allocated.add(threadAllocatedBytes() - allocatedBefore);
+        }
+    }
+
+    private void writeChunk(String importId, OrderImportBatch batch, long[] ids) {
+        idAllocator.allocate(ids, batch.size);
+        chunkTemplate.executeWithoutResult(status -> {
+            jdbcTemplate.batchUpdate(INSERT_ORDER, new BatchPreparedStatementSetter() {
+                @Override
+                public void setValues(PreparedStatement ps, int i) throws SQLException {
+                    ps.setLong(1, ids[i]);
+                    ps.setString(2, batch.usernames[i]);
+                    ps.setShort(3, batch.payStatuses[i]);
+                }
+
+                @Override
+                public int getBatchSize() {
+                    return batch.size;
+                }
+            });
+            jdbcTemplate.update(INSERT_CHUNK, importId, batch.chunkIndex, chunkSize, batch.size,
+                    Timestamp.valueOf(LocalDateTime.now()));
+        });
+    }
+
+    private void stopWriters(BlockingQueue<OrderImportBatch> queue, List<Thread> threads) {
+        try {
+            for (int i = 0; i < threads.size(); i++) {
+                queue.put(OrderImportBatch.END);
+            }
+            for (Thread thread : threads) {
+                thread.join();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            threads.forEach(Thread::interrupt);
+        }
+    }
+
+    private Set<Long> committedChunks(String importId) {
+        Set<Long> committed = new HashSet<>();
+        jdbcTemplate.query(SELECT_CHUNKS, rs -> {
+            if (rs.getInt("chunk_size") != chunkSize) {
+                throw new IllegalStateException("import " + importId + " was started with chunk size "
+                        + rs.getInt("chunk_size") + ", current chunk size " + chunkSize);
+            }
+            committed.add(rs.getLong("chunk_index"));
+        }, importId);
+        if (!committed.isEmpty()) {
+            log.info("order import resume. importId={}, committedChunks={}", importId, committed.size());
+        }
+        return committed;
+    }
+
+    private static long gcCount() {
+        long count = 0;
+        for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+            count += Math.max(0, gc.getCollectionCount());
+        }
+        return count;
+    }
+
+    private static long gcMillis() {
+        long millis = 0;
+        for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+            millis += Math.max(0, gc.getCollectionTime());
+        }
+        return millis;
+    }
+
+    // 현재 스레드가 지금까지 할당한 바이트 (지원하지 않는 JVM 이면 0)
+    private static long threadAllocatedBytes() {
+        java.lang.management.ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        if (threads instanceof com.sun.management.ThreadMXBean) {
+            return Math.max(0, ((com.sun.management.ThreadMXBean) threads).getThreadAllocatedBytes(Thread.currentThread().getId()));
+        }
+        return 0;
+    }
+
+
+    /**
+     * 파싱된 행을 청크 단위 배치로 모아서 큐에 전달, 커밋된 청크의 행은 버림
+     */
+    private class BatchSink implements OrderCsvParser.RecordHandler {
+
+        private final Set<Long> committed;
+        private final BlockingQueue<OrderImportBatch> queue;
+        private final BlockingQueue<OrderImportBatch> free;
+        private final AtomicReference<Throwable> writerFailure;
+
+        private OrderImportBatch current;
+        private boolean skipping;
+        private long skippedChunks;
+
+        BatchSink(Set<Long> committed, BlockingQueue<OrderImportBatch> queue, BlockingQueue<OrderImportBatch> free,
+                  AtomicReference<Throwable> writerFailure) {
+            this.committed = committed;
+            this.queue = queue;
+            this.free = free;
+            this.writerFailure = writerFailure;
+        }
+
+        @Override
+        public void record(long recordIndex, String username, short payStatus) throws InterruptedException {
+            long chunkIndex = recordIndex / chunkSize;
+            if (current == null || current.chunkIndex != chunkIndex) {
+                if (writerFailure.get() != null) {
+                    throw new IllegalStateException("order import writer failed");
+                }
+                submit();
+                current = free.take();
+                current.reset(chunkIndex);
+                skipping = committed.contains(chunkIndex);
+                if (skipping) {
+                    skippedChunks++;
+                }
+            }
+            if (!skipping) {
+                current.add(username, payStatus);
+            }
+            // 청크의 마지막 행 : 바로 전달
+            if ((recordIndex + 1) % chunkSize == 0) {
+                submit();
+                current = null;
+            }
+        }
+
+        void finish() throws InterruptedException {
+            submit();
+            current = null;
+        }
+
+        private void submit() throws InterruptedException {
+            if (current == null) {
+                return;
+            }
+            if (current.size == 0) {
+                free.add(current);
+            } else {
+                queue.put(current);
+            }
+        }
+    }
+
+
+    @Getter
+    @ToString
+    @RequiredArgsConstructor
+    public static class ImportReport {
+        private final String importId;
+        private final long rows;
+        private final long chunks;
+        private final long skippedChunks;
+        private final long elapsedMillis;
+        private final double rowsPerSecond;
+        private final long gcCount;
+        private final long gcMillis;
+        private final long allocatedBytes;
+    }
+}
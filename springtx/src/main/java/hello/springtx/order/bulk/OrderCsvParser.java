@@ -0,0 +1,224 @@
+package hello.springtx.order.bulk;
+
+import hello.springtx.order.PayStatus;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * 메모리 맵 CSV 파서 : username,payStatus (UTF-8, 첫 줄이 username 으로 시작하면 헤더)
+ * payStatus : code(1, 2), 대기/완료, WAIT/COMPLETE
+ * username  : 따옴표로 감싼 값 지원 ("" 는 따옴표)
+ *
+ * 파일을 window 크기씩 매핑해서 바이트 단위로 읽음 (줄마다 String, byte[] 생성 없음)
+ * username 은 바이트 -> String 테이블로 중복 제거 (같은 username 은 같은 String 재사용)
+ */
+class OrderCsvParser {
+
+    private static final int MAX_FIELD_LENGTH = 1024;
+    private static final byte[] HEADER = "username".getBytes(StandardCharsets.UTF_8);
+
+    private final long windowSize;
+    private final byte[] field = new byte[MAX_FIELD_LENGTH];
+    private final StringTable usernames = new StringTable(4096);
+    private final byte[][] statusLabels = new byte[PayStatus.values().length * 2][];
+
+    private long recordIndex;
+    private boolean firstLine;
+
+    OrderCsvParser(long windowSize) {
+        this.windowSize = Math.min(windowSize, Integer.MAX_VALUE);
+        PayStatus[] statuses = PayStatus.values();
+        for (int i = 0; i < statuses.length; i++) {
+            statusLabels[i * 2] = statuses[i].getDescription().getBytes(StandardCharsets.UTF_8);
+            statusLabels[i * 2 + 1] = statuses[i].name().getBytes(StandardCharsets.UTF_8);
+        }
+    }
+
+    interface RecordHandler {
+        /**
+         * @param recordIndex 0 부터 시작하는 데이터 행 번호 (헤더 제외)
+         */
+        void record(long recordIndex, String username, short payStatus) throws InterruptedException;
+    }
+
+    /**
+     * @return 데이터 행 수
+     */
+    long parse(Path file, RecordHandler handler) throws IOException, InterruptedException {
+        recordIndex = 0;
+        firstLine = true;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long fileSize = channel.size();
+            long position = 0;
+            while (position < fileSize) {
+                long length = Math.min(windowSize, fileSize - position);
+                boolean last = position + length == fileSize;
+                MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, position, length);
+
+                int limit = (int) length;
+                int lineStart = 0;
+                for (int i = 0; i < limit; i++) {
+                    if (buffer.get(i) == '\n') {
+                        parseLine(buffer, lineStart, i, handler);
+                        lineStart = i + 1;
+                    }
+                }
+                if (last) {
+                    if (lineStart < limit) {
+                        parseLine(buffer, lineStart, limit, handler);
+                    }
+                    break;
+                }
+                if (lineStart == 0) {
+                    throw new IllegalArgumentException("line longer than map window. position=" + position);
+                }
+                // 잘린 마지막 줄은 다음 window 에서 다시 읽음
+                position += lineStart;
+            }
+        }
+        return recordIndex;
+    }
+
+    private void parseLine(MappedByteBuffer buffer, int start, int end, RecordHandler handler) throws InterruptedException {
+        if (end > start && buffer.get(end - 1) == '\r') {
+            end--;
+        }
+        if (end == start) {
+            return;
+        }
+
+        int usernameLength;
+        int position = start;
+        if (buffer.get(position) == '"') {
+            usernameLength = 0;
+            position++;
+            while (true) {
+                if (position >= end) {
+                    throw error("unterminated quote");
+                }
+                byte b = buffer.get(position++);
+                if (b == '"') {
+                    if (position < end && buffer.get(position) == '"') {
+                        position++;
+                    } else {
+                        break;
+                    }
+                }
+                usernameLength = put(usernameLength, b);
+            }
+            if (position >= end || buffer.get(position) != ',') {
+                throw error("missing pay status");
+            }
+        } else {
+            usernameLength = 0;
+            while (position < end && buffer.get(position) != ',') {
+                usernameLength = put(usernameLength, buffer.get(position++));
+            }
+            if (position >= end) {
+                throw error("missing pay status");
+            }
+        }
+        position++;   // ','
+
+        if (firstLine) {
+            firstLine = false;
+            if (usernameLength == HEADER.length && Arrays.equals(field, 0, usernameLength, HEADER, 0, HEADER.length)) {
+                return;
+            }
+        }
+
+        String username = usernames.get(field, usernameLength);
+        short payStatus = parsePayStatus(buffer, position, end);
+        handler.record(recordIndex++, username, payStatus);
+    }
+
+    private int put(int length, byte b) {
+        if (length == MAX_FIELD_LENGTH) {
+            throw error("username longer than " + MAX_FIELD_LENGTH + " bytes");
+        }
+        field[length] = b;
+        return length + 1;
+    }
+
+    private short parsePayStatus(MappedByteBuffer buffer, int start, int end) {
+        if (end - start == 1 && Character.isDigit(buffer.get(start))) {
+            short code = (short) (buffer.get(start) - '0');
+            try {
+                return PayStatus.fromCode(code).getCode();
+            } catch (IllegalArgumentException e) {
+                throw error("unknown pay status code " + code);
+            }
+        }
+        PayStatus[] statuses = PayStatus.values();
+        for (int i = 0; i < statusLabels.length; i++) {
+            if (matches(buffer, start, end, statusLabels[i])) {
+                return statuses[i / 2].getCode();
+            }
+        }
+        throw error("unknown pay status");
+    }
+
+    private static boolean matches(MappedByteBuffer buffer, int start, int end, byte[] label) {
+        if (end - start != label.length) {
+            return false;
+        }
+        for (int i = 0; i < label.length; i++) {
+            if (buffer.get(start + i) != label[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private IllegalArgumentException error(String message) {
+        return new IllegalArgumentException(message + ". record=" + recordIndex);
+    }
+
+
+    /**
+     * UTF-8 바이트 -> String (개방 주소법, 가득 차면 더 이상 추가하지 않고 새 String 반환)
+     */
+    private static class StringTable {
+
+        private final byte[][] keys;
+        private final String[] values;
+        private final int mask;
+        private final int maxSize;
+        private int size;
+
+        StringTable(int capacity) {
+            this.keys = new byte[capacity][];
+            this.values = new String[capacity];
+            this.mask = capacity - 1;
+            this.maxSize = capacity * 3 / 4;
+        }
+
+        String get(byte[] bytes, int length) {
+            int hash = 1;
+            for (int i = 0; i < length; i++) {
+                hash = 31 * hash + bytes[i];
+            }
+            int index = (hash ^ (hash >>> 16)) & mask;
+            while (keys[index] != null) {
+                byte[] key = keys[index];
+                if (key.length == length && Arrays.equals(key, 0, length, bytes, 0, length)) {
+                    return values[index];
+                }
+                index = (index + 1) & mask;
+            }
+            String value = new String(bytes, 0, length, StandardCharsets.UTF_8);
+            if (size < maxSize) {
+                keys[index] = Arrays.copyOf(bytes, length);
+                values[index] = value;
+                size++;
+            }
+            return value;
+        }
+    }
+}
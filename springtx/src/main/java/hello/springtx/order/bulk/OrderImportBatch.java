@@ -0,0 +1,32 @@
+package hello.springtx.order.bulk;
+
+/**
+ * 파서 -> 작업자로 전달하는 청크 (재사용, 열 단위 배열)
+ * chunkIndex 는 데이터 행 번호 / chunkSize
+ */
+class OrderImportBatch {
+
+    // 작업자 종료 신호
+    static final OrderImportBatch END = new OrderImportBatch(0);
+
+    final String[] usernames;
+    final short[] payStatuses;
+    long chunkIndex;
+    int size;
+
+    OrderImportBatch(int capacity) {
+        this.usernames = new String[capacity];
+        this.payStatuses = new short[capacity];
+    }
+
+    void reset(long chunkIndex) {
+        this.chunkIndex = chunkIndex;
+        this.size = 0;
+    }
+
+    void add(String username, short payStatus) {
+        usernames[size] = username;
+        payStatuses[size] = payStatus;
+        size++;
+    }
+}
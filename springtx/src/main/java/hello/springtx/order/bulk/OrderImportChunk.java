@@ -0,0 +1,43 @@
+package hello.springtx.order.bulk;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.GeneratedValue;
+import javax.persistence.GenerationType;
+import javax.persistence.Id;
+import javax.persistence.Table;
+import javax.persistence.UniqueConstraint;
+import java.time.LocalDateTime;
+
+/**
+ * 주문 일괄 등록 체크포인트 : 커밋된 청크 (청크의 주문 insert 와 같은 트랜잭션에서 저장)
+ * 다시 실행하면 import_id 의 커밋된 청크는 건너뜀
+ * 청크 경계는 chunk_size 로 결정 -> 같은 import_id 는 같은 chunk_size 로만 재개 가능
+ */
+@Entity
+@Table(name = "order_import_chunk",
+        uniqueConstraints = @UniqueConstraint(name = "uk_order_import_chunk", columnNames = {"import_id", "chunk_index"}))
+@Getter @Setter
+public class OrderImportChunk {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "import_id", nullable = false)
+    private String importId;
+
+    @Column(name = "chunk_index", nullable = false)
+    private long chunkIndex;
+
+    @Column(name = "chunk_size", nullable = false)
+    private int chunkSize;
+
+    @Column(name = "row_count", nullable = false)
+    private int rowCount;
+
+    private LocalDateTime committedAt;
+}
@@ -0,0 +1,41 @@
+package hello.springtx.order.bulk;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * JDBC 로 pooled-lo ID 할당 (PooledSequenceGenerator 와 같은 방식)
+ * 시퀀스 값 v 1회 조회 -> [v, v + allocationSize) 사용
+ * Hibernate 의 orders_seq 생성기와 같은 시퀀스, 같은 할당 크기를 쓰므로 ID 가 겹치지 않음
+ */
+class PooledLoIdAllocator {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final String nextValueSql;
+    private final int allocationSize;
+
+    private long next;
+    private long hi;
+
+    PooledLoIdAllocator(JdbcTemplate jdbcTemplate, String nextValueSql, int allocationSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.nextValueSql = nextValueSql;
+        this.allocationSize = allocationSize;
+    }
+
+    /**
+     * ids[0..count) 에 ID 채움
+     */
+    synchronized void allocate(long[] ids, int count) {
+        for (int i = 0; i < count; i++) {
+            if (next == hi) {
+                Long value = jdbcTemplate.queryForObject(nextValueSql, Long.class);
+                if (value == null) {
+                    throw new IllegalStateException("sequence returned null. sql=" + nextValueSql);
+                }
+                next = value;
+                hi = value + allocationSize;
+            }
+            ids[i] = next++;
+        }
+    }
+}
@@ -0,0 +1,12 @@
+package hello.springtx.propagation;
+
+/**
+ * 저장할 수 없는 로그 (LogRepository.validate)
+ * 일괄 저장(saveAll)은 이 예외인 로그만 건너뛰고, 다른 예외는 그대로 던진다
+ */
+public class InvalidLogException extends RuntimeException {
+
+    public InvalidLogException(String message) {
+        super(message);
+    }
+}
@@ -1,17 +1,36 @@
 package hello.springtx.propagation;
 
+import hello.springtx.jpa.PooledSequenceGenerator;
 import lombok.Getter;
 import lombok.Setter;
+import org.hibernate.annotations.GenericGenerator;
+import org.hibernate.annotations.Parameter;
+import org.hibernate.id.enhanced.SequenceStyleGenerator;
 
 import javax.persistence.Entity;
 import javax.persistence.GeneratedValue;
+import javax.persistence.GenerationType;
 import javax.persistence.Id;
+import javax.persistence.NamedQueries;
+import javax.persistence.NamedQuery;
 
 @Entity
+@NamedQueries({
+        @NamedQuery(name = Log.FIND_BY_MESSAGE,
+                query = "SELECT l FROM Log l WHERE l.message = :message"),
+        @NamedQuery(name = Log.EXISTS_BY_MESSAGE,
+                query = "SELECT l.id FROM Log l WHERE l.message = :message")
+})
 @Getter @Setter
 public class Log {
 
-    @Id @GeneratedValue
+    public static final String FIND_BY_MESSAGE = "Log.findByMessage";
+    public static final String EXISTS_BY_MESSAGE = "Log.existsByMessage";
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "log_seq")
+    @GenericGenerator(name = "log_seq", strategy = PooledSequenceGenerator.STRATEGY,
+            parameters = @Parameter(name = SequenceStyleGenerator.SEQUENCE_PARAM, value = "log_seq"))
     private Long id;
     private String message;
 
@@ -0,0 +1,19 @@
+package hello.springtx.propagation;
+
+/**
+ * 로그 저장 방식 (springtx.log.mode)
+ */
+public enum LogMode {
+
+    // 별도 커넥션, 별도 물리 트랜잭션 (요청당 커넥션 2개)
+    REQUIRES_NEW,
+
+    // 외부 트랜잭션 커넥션의 세이브포인트 (요청당 커넥션 1개)
+    NESTED,
+
+    // 외부 트랜잭션에 아웃박스 저장, 백그라운드에서 Log 로 일괄 이동
+    OUTBOX,
+
+    // 커밋 후 메모리 맵 저널 파일에 추가, 백그라운드에서 Log 로 일괄 저장
+    JOURNAL
+}
@@ -0,0 +1,204 @@
+package hello.springtx.propagation;
+
+import hello.springtx.metrics.Histogram;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.ToString;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * springtx.log.mode=OUTBOX
+ * append : 호출자 트랜잭션 안에서 LogOutboxEntry 저장 (REQUIRES_NEW 트랜잭션 없음)
+ * drain  : 백그라운드 스레드가 batch-size 단위로 Log 테이블로 이동
+ *          배치가 가득 차면 바로 다음 배치, 아니면 flush-interval 대기
+ *
+ * 배압 : 미처리 항목이 max-pending 이상이면
+ *       - 트랜잭션 안의 append : 기다리지 않고 바로 실패 (커넥션을 잡은 채 대기하지 않음, 호출자 트랜잭션 롤백)
+ *       - 트랜잭션 밖 (append, awaitCapacity) : max-wait 동안 대기 후 실패
+ *       대기가 필요한 호출자는 트랜잭션 시작 전에 awaitCapacity 호출
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "springtx.log.mode", havingValue = "OUTBOX")
+public class LogOutbox implements SmartLifecycle {
+
+    private final LogRepository logRepository;
+    private final LogOutboxRepository outboxRepository;
+    private final int batchSize;
+    private final Duration flushInterval;
+    private final long maxPending;
+    private final Duration maxWait;
+
+    private final AtomicLong pending = new AtomicLong();
+    private final LongAdder drained = new LongAdder();
+    private final Histogram batchSizes = new Histogram();
+    private final Histogram lagMillis = new Histogram();
+    private final Object capacity = new Object();
+
+    private ScheduledExecutorService drainer;
+
+    public LogOutbox(LogRepository logRepository, LogOutboxRepository outboxRepository,
+                     @Value("${springtx.log.outbox.batch-size:500}") int batchSize,
+                     @Value("${springtx.log.outbox.flush-interval:200ms}") Duration flushInterval,
+                     @Value("${springtx.log.outbox.max-pending:10000}") long maxPending,
+                     @Value("${springtx.log.outbox.max-wait:1s}") Duration maxWait) {
+        this.logRepository = logRepository;
+        this.outboxRepository = outboxRepository;
+        this.batchSize = batchSize;
+        this.flushInterval = flushInterval;
+        this.maxPending = maxPending;
+        this.maxWait = maxWait;
+    }
+
+    public void append(Log logMessage) {
+        // 실패 대상 로그는 아웃박스에 쌓기 전에 예외 (REQUIRES_NEW 와 동일한 joinV1, joinV2 결과)
+        logRepository.validate(logMessage);
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            checkCapacity();
+        } else {
+            awaitCapacity();
+        }
+        outboxRepository.save(new LogOutboxEntry(logMessage.getMessage()));
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    pending.incrementAndGet();
+                }
+            });
+        } else {
+            pending.incrementAndGet();
+        }
+    }
+
+    /**
+     * 아웃박스가 빌 때까지 이동
+     * @return 이동한 건수
+     */
+    public int drain() {
+        int total = 0;
+        int moved;
+        do {
+            moved = drainBatch();
+            total += moved;
+        } while (moved == batchSize);
+        return total;
+    }
+
+    private synchronized int drainBatch() {
+        List<LogOutboxEntry> entries = outboxRepository.moveToLog(batchSize);
+        if (entries.isEmpty()) {
+            return 0;
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        lagMillis.record(Duration.between(entries.get(0).getCreatedAt(), now).toMillis());
+        batchSizes.record(entries.size());
+        drained.add(entries.size());
+        pending.updateAndGet(value -> Math.max(0, value - entries.size()));
+
+        synchronized (capacity) {
+            capacity.notifyAll();
+        }
+        return entries.size();
+    }
+
+    private void checkCapacity() {
+        if (pending.get() >= maxPending) {
+            throw new IllegalStateException("log outbox backlog full. pending=" + pending.get());
+        }
+    }
+
+    /**
+     * 트랜잭션 시작 전 배압 : 미처리 항목이 max-pending 미만이 될 때까지 max-wait 동안 대기 (초과 시 IllegalStateException)
+     */
+    public void awaitCapacity() {
+        if (pending.get() < maxPending) {
+            return;
+        }
+        long deadline = System.nanoTime() + maxWait.toNanos();
+        synchronized (capacity) {
+            while (pending.get() >= maxPending) {
+                long remaining = deadline - System.nanoTime();
+                if (remaining <= 0) {
+                    throw new IllegalStateException("log outbox backlog full. pending=" + pending.get());
+                }
+                try {
+                    TimeUnit.NANOSECONDS.timedWait(capacity, remaining);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new IllegalStateException("interrupted while waiting for log outbox", e);
+                }
+            }
+        }
+    }
+
+    public OutboxSnapshot snapshot() {
+        return new OutboxSnapshot(pending.get(), drained.sum(), batchSizes.snapshot(), lagMillis.snapshot());
+    }
+
+    @Override
+    public void start() {
+        pending.set(outboxRepository.count());
+        drainer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "log-outbox-drainer");
+            thread.setDaemon(true);
+            return thread;
+        });
+        drainer.scheduleWithFixedDelay(this::drainSafely,
+                flushInterval.toMillis(), flushInterval.toMillis(), TimeUnit.MILLISECONDS);
+        log.info("log outbox drainer started. batchSize={}, flushInterval={}", batchSize, flushInterval);
+    }
+
+    @Override
+    public void stop() {
+        drainer.shutdown();
+        try {
+            drainer.awaitTermination(maxWait.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        drainSafely();
+        drainer = null;
+    }
+
+    @Override
+    public boolean isRunning() {
+        return drainer != null;
+    }
+
+    private void drainSafely() {
+        try {
+            drain();
+        } catch (RuntimeException e) {
+            log.warn("log outbox drain failed", e);
+        }
+    }
+
+
+    @Getter
+    @ToString
+    @RequiredArgsConstructor
+    public static class OutboxSnapshot {
+        private final long pending;
+        private final long drained;
+        private final Histogram.Snapshot batchSizes;
+        private final Histogram.Snapshot lagMillis;
+    }
+}
@@ -0,0 +1,38 @@
+package hello.springtx.propagation;
+
+import hello.springtx.jpa.PooledSequenceGenerator;
+import lombok.Getter;
+import lombok.Setter;
+import org.hibernate.annotations.GenericGenerator;
+import org.hibernate.annotations.Parameter;
+import org.hibernate.id.enhanced.SequenceStyleGenerator;
+
+import javax.persistence.Entity;
+import javax.persistence.GeneratedValue;
+import javax.persistence.GenerationType;
+import javax.persistence.Id;
+import java.time.LocalDateTime;
+
+/**
+ * Log 아웃박스 : 호출자 트랜잭션 안에서 저장, LogOutbox 가 Log 테이블로 일괄 이동
+ */
+@Entity
+@Getter @Setter
+public class LogOutboxEntry {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "log_outbox_seq")
+    @GenericGenerator(name = "log_outbox_seq", strategy = PooledSequenceGenerator.STRATEGY,
+            parameters = @Parameter(name = SequenceStyleGenerator.SEQUENCE_PARAM, value = "log_outbox_seq"))
+    private Long id;
+    private String message;
+    private LocalDateTime createdAt;
+
+    public LogOutboxEntry() {
+    }
+
+    public LogOutboxEntry(String message) {
+        this.message = message;
+        this.createdAt = LocalDateTime.now();
+    }
+}
@@ -0,0 +1,53 @@
+package hello.springtx.propagation;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.EntityManager;
+import java.util.List;
+import java.util.stream.Collectors;
+
+@Slf4j
+@Repository
+@RequiredArgsConstructor
+public class LogOutboxRepository {
+
+    private final EntityManager em;
+
+    // 호출자 트랜잭션에 참여 (REQUIRED)
+    @Transactional
+    public void save(LogOutboxEntry entry) {
+        log.info("log outbox 저장");
+        em.persist(entry);
+    }
+
+    /**
+     * 오래된 순서로 batchSize 건을 Log 로 이동 (하나의 트랜잭션)
+     * @return 이동한 아웃박스 항목
+     */
+    @Transactional
+    public List<LogOutboxEntry> moveToLog(int batchSize) {
+        List<LogOutboxEntry> entries = em.createQuery("SELECT o FROM LogOutboxEntry o ORDER BY o.id", LogOutboxEntry.class)
+                .setMaxResults(batchSize)
+                .getResultList();
+        if (entries.isEmpty()) {
+            return entries;
+        }
+
+        for (LogOutboxEntry entry : entries) {
+            em.persist(new Log(entry.getMessage()));
+        }
+        List<Long> ids = entries.stream().map(LogOutboxEntry::getId).collect(Collectors.toList());
+        em.createQuery("DELETE FROM LogOutboxEntry o WHERE o.id IN :ids")
+                .setParameter("ids", ids)
+                .executeUpdate();
+        return entries;
+    }
+
+    public long count() {
+        return em.createQuery("SELECT count(o) FROM LogOutboxEntry o", Long.class)
+                .getSingleResult();
+    }
+}
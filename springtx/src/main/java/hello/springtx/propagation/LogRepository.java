@@ -1,5 +1,7 @@
 package hello.springtx.propagation;
 
+import hello.springtx.datasource.SideTransaction;
+import hello.springtx.jpa.JdbcBatchProperties;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Repository;
@@ -7,6 +9,7 @@ import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 import javax.persistence.EntityManager;
+import java.util.List;
 import java.util.Optional;
 
 @Slf4j
@@ -16,20 +19,73 @@ public class LogRepository {
 
     private final EntityManager em;
 
+    private final JdbcBatchProperties jdbcBatchProperties;
+
+    @SideTransaction
     @Transactional(propagation = Propagation.REQUIRES_NEW)
     public void save(Log logMessage) {
         log.info("log 저장");
         em.persist(logMessage);
+        validate(logMessage);
+    }
+
+    /**
+     * 외부 트랜잭션이 있으면 같은 커넥션의 세이브포인트로 저장 (springtx.log.mode=NESTED)
+     * 예외 발생 시 세이브포인트까지만 롤백 -> 외부 트랜잭션은 rollbackOnly 가 되지 않음
+     */
+    @Transactional(propagation = Propagation.NESTED)
+    public void saveNested(Log logMessage) {
+        log.info("log 저장 (NESTED)");
+        em.persist(logMessage);
+        validate(logMessage);
+    }
+
+    /**
+     * 로그 1건 실패가 다른 로그, member 에 영향을 주지 않음 (joinV2 와 동일한 결과)
+     * validate 에 실패한 로그(InvalidLogException)만 저장하지 않고, 나머지는 JDBC Batch 로 저장
+     * 그 밖의 예외(DB 오류 등)는 로그 트랜잭션 전체 롤백
+     */
+    @SideTransaction
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void saveAll(List<Log> logMessages) {
+        log.info("log 일괄 저장 size={}", logMessages.size());
+        int count = 0;
+        for (Log logMessage : logMessages) {
+            try {
+                validate(logMessage);
+            } catch (InvalidLogException e) {
+                log.info("log 저장에 실패하였습니다. logMessage={}", logMessage.getMessage());
+                continue;
+            }
+            em.persist(logMessage);
+            if (++count % jdbcBatchProperties.getBatchSize() == 0) {
+                em.flush();
+                em.clear();
+            }
+        }
+    }
 
+    /**
+     * @throws InvalidLogException 저장할 수 없는 로그 (메시지에 "로그예외" 포함)
+     */
+    public void validate(Log logMessage) {
         if (logMessage.getMessage().contains("로그예외")) {
             log.info("log 저장 시, 예외 발생");
-            throw new RuntimeException("예외 발생");
+            throw new InvalidLogException("예외 발생");
         }
     }
 
     public Optional<Log> find(String message) {
-        return em.createQuery("SELECT l FROM Member l WHERE =l.message = :message", Log.class)
+        return em.createNamedQuery(Log.FIND_BY_MESSAGE, Log.class)
+                .setParameter("message", message)
+                .setMaxResults(1)
+                .getResultList().stream().findFirst();
+    }
+
+    public boolean exists(String message) {
+        return !em.createNamedQuery(Log.EXISTS_BY_MESSAGE, Long.class)
                 .setParameter("message", message)
-                .getResultList().stream().findAny();
+                .setMaxResults(1)
+                .getResultList().isEmpty();
     }
 }
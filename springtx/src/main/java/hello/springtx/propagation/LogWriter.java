@@ -0,0 +1,68 @@
+package hello.springtx.propagation;
+
+import hello.springtx.propagation.journal.LogJournal;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * springtx.log.mode 에 따라 로그 저장 방식 선택
+ * 로그 저장 실패 시 RuntimeException -> joinV1 전체 롤백, joinV2 는 예외 복구 후 member 커밋
+ */
+@Slf4j
+@Component
+public class LogWriter {
+
+    private final LogRepository logRepository;
+    private final ObjectProvider<LogOutbox> logOutbox;
+    private final ObjectProvider<LogJournal> logJournal;
+    private final LogMode mode;
+
+    public LogWriter(LogRepository logRepository, ObjectProvider<LogOutbox> logOutbox,
+                     ObjectProvider<LogJournal> logJournal,
+                     @Value("${springtx.log.mode:REQUIRES_NEW}") LogMode mode) {
+        this.logRepository = logRepository;
+        this.logOutbox = logOutbox;
+        this.logJournal = logJournal;
+        this.mode = mode;
+        log.info("log mode={}", mode);
+    }
+
+    public void write(Log logMessage) {
+        switch (mode) {
+            case NESTED:
+                logRepository.saveNested(logMessage);
+                break;
+            case OUTBOX:
+                logOutbox.getObject().append(logMessage);
+                break;
+            case JOURNAL:
+                appendToJournal(logMessage);
+                break;
+            case REQUIRES_NEW:
+            default:
+                logRepository.save(logMessage);
+        }
+    }
+
+    /**
+     * 트랜잭션이 있으면 커밋 후에 저널에 추가 (롤백된 요청의 로그는 남기지 않음)
+     */
+    private void appendToJournal(Log logMessage) {
+        logRepository.validate(logMessage);
+        LogJournal journal = logJournal.getObject();
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            journal.append(logMessage.getMessage());
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                journal.append(logMessage.getMessage());
+            }
+        });
+    }
+}
@@ -1,18 +1,47 @@
 package hello.springtx.propagation;
 
+import hello.springtx.jpa.PooledSequenceGenerator;
 import lombok.Getter;
 import lombok.Setter;
+import org.hibernate.annotations.GenericGenerator;
+import org.hibernate.annotations.Parameter;
+import org.hibernate.id.enhanced.SequenceStyleGenerator;
 
+import javax.persistence.Column;
 import javax.persistence.Entity;
 import javax.persistence.GeneratedValue;
+import javax.persistence.GenerationType;
 import javax.persistence.Id;
+import javax.persistence.NamedQueries;
+import javax.persistence.NamedQuery;
+import javax.persistence.Table;
+import javax.persistence.UniqueConstraint;
 
 @Entity
+@NamedQueries({
+        @NamedQuery(name = Member.FIND_BY_USERNAME,
+                query = "SELECT m FROM Member m WHERE m.username = :username"),
+        @NamedQuery(name = Member.EXISTS_BY_USERNAME,
+                query = "SELECT m.id FROM Member m WHERE m.username = :username"),
+        @NamedQuery(name = Member.FIND_VIEW_BY_USERNAME,
+                query = "SELECT new hello.springtx.propagation.MemberView(m.id, m.username) FROM Member m WHERE m.username = :username")
+})
+@Table(uniqueConstraints = @UniqueConstraint(name = "uk_member_username", columnNames = "username"))
 @Getter @Setter
 public class Member {
 
-    @Id @GeneratedValue
+    // 애플리케이션 시작 시 파싱/검증되는 쿼리 (호출마다 JPQL 문자열을 만들지 않음)
+    public static final String FIND_BY_USERNAME = "Member.findByUsername";
+    public static final String EXISTS_BY_USERNAME = "Member.existsByUsername";
+    public static final String FIND_VIEW_BY_USERNAME = "Member.findViewByUsername";
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "member_seq")
+    @GenericGenerator(name = "member_seq", strategy = PooledSequenceGenerator.STRATEGY,
+            parameters = @Parameter(name = SequenceStyleGenerator.SEQUENCE_PARAM, value = "member_seq"))
     private Long id;
+
+    @Column(nullable = false)
     private String username;
 
     public Member() {
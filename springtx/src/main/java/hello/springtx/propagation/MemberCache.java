@@ -0,0 +1,45 @@
+package hello.springtx.propagation;
+
+import hello.springtx.support.BoundedCache;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * username -> MemberView(id, username) 캐시 (크기 LRU + TTL)
+ *
+ * 트랜잭션 안에서 저장/조회한 Member 는 커밋 이후에만 캐시에 반영 (afterCommit)
+ * -> 롤백된 회원이 캐시에 남지 않음
+ * 엔티티 대신 불변 값만 저장 -> 여러 스레드/영속성 컨텍스트가 같은 엔티티 인스턴스를 공유하지 않음
+ */
+@Component
+public class MemberCache extends BoundedCache<String, MemberView> {
+
+    // 전체 크기 기준 LRU (stripe 1개)
+    private static final int STRIPES = 1;
+
+    public MemberCache(@Value("${springtx.member.cache.max-size:10000}") int maxSize,
+                       @Value("${springtx.member.cache.ttl:10m}") Duration ttl) {
+        super(maxSize, ttl, STRIPES);
+    }
+
+    public void putAfterCommit(Member member) {
+        putAllAfterCommit(List.of(member));
+    }
+
+    /**
+     * put 시점의 id, username 으로 고정 (persist 시 id 할당 완료)
+     */
+    public void putAllAfterCommit(Collection<Member> members) {
+        Map<String, MemberView> views = new LinkedHashMap<>();
+        for (Member member : members) {
+            views.put(member.getUsername(), new MemberView(member.getId(), member.getUsername()));
+        }
+        putAllAfterCommit(views);
+    }
+}
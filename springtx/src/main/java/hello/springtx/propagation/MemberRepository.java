@@ -1,12 +1,21 @@
 package hello.springtx.propagation;
 
+import hello.springtx.jpa.JdbcBatchProperties;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.hibernate.jpa.QueryHints;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import javax.persistence.EntityManager;
 import javax.transaction.Transactional;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Slf4j
 @Repository
@@ -14,17 +23,110 @@ import java.util.Optional;
 public class MemberRepository {
 
     private final EntityManager em;
+    private final MemberCache memberCache;
+    private final UsernameBloomFilter bloomFilter;
+
+    private final JdbcBatchProperties jdbcBatchProperties;
 
     @Transactional
     public void save(Member member) {
         log.info("member 저장");
         em.persist(member);
+        memberCache.putAfterCommit(member);
+        bloomFilter.putAllAfterCommit(Collections.singletonList(member.getUsername()));
+    }
+
+    /**
+     * JDBC Batch 단위로 flush, clear
+     * 영속성 컨텍스트에 엔티티가 쌓이지 않아 메모리 사용량 일정
+     */
+    @Transactional
+    public void saveAll(List<Member> members) {
+        log.info("member 일괄 저장 size={}", members.size());
+        for (int i = 0; i < members.size(); i++) {
+            em.persist(members.get(i));
+            if ((i + 1) % jdbcBatchProperties.getBatchSize() == 0) {
+                em.flush();
+                em.clear();
+            }
+        }
+        em.flush();
+        em.clear();
+        memberCache.putAllAfterCommit(members);
+        bloomFilter.putAllAfterCommit(members.stream().map(Member::getUsername).collect(Collectors.toList()));
     }
 
+    /**
+     * 캐시에 있으면 username 조회 대신
+     * - 트랜잭션 안 : id 로 현재 영속성 컨텍스트의 엔티티 반환 (이미 영속 상태면 DB 조회 없음)
+     * - 트랜잭션 밖 : 캐시 값으로 만든 준영속 Member 반환 (호출마다 새 인스턴스)
+     */
     public Optional<Member> find(String username) {
-        return em.createQuery("SELECT m FROM Member m WHERE m.username = :username", Member.class)
+        MemberView cached = memberCache.get(username);
+        if (cached != null) {
+            if (TransactionSynchronizationManager.isActualTransactionActive()) {
+                return Optional.ofNullable(em.find(Member.class, cached.getId()));
+            }
+            return Optional.of(detached(cached));
+        }
+
+        Optional<Member> member = em.createNamedQuery(Member.FIND_BY_USERNAME, Member.class)
                 .setParameter("username", username)
-                .getResultList().stream().findAny();
+                .setMaxResults(1)
+                .getResultList().stream().findFirst();
+        member.ifPresent(memberCache::putAfterCommit);
+        return member;
+    }
+
+    private static Member detached(MemberView view) {
+        Member member = new Member(view.getUsername());
+        member.setId(view.getId());
+        return member;
+    }
 
+    /**
+     * 조회 전용 (엔티티를 영속성 컨텍스트에 올리지 않음)
+     */
+    public Optional<MemberView> findView(String username) {
+        return em.createNamedQuery(Member.FIND_VIEW_BY_USERNAME, MemberView.class)
+                .setParameter("username", username)
+                .setMaxResults(1)
+                .getResultList().stream().findFirst();
+    }
+
+    /**
+     * 커밋된 회원 존재 여부
+     * 블룸 필터에 없으면 DB 조회 없이 false, 있으면 id 1건만 조회
+     */
+    public boolean exists(String username) {
+        if (!bloomFilter.mightContain(username)) {
+            return false;
+        }
+        if (memberCache.get(username) != null) {
+            return true;
+        }
+        return !em.createNamedQuery(Member.EXISTS_BY_USERNAME, Long.class)
+                .setParameter("username", username)
+                .setMaxResults(1)
+                .getResultList().isEmpty();
+    }
+
+    /**
+     * 전체 username 스트리밍 조회 (영속성 컨텍스트에 엔티티를 올리지 않음)
+     * @return 조회 건수
+     */
+    @Transactional
+    public long forEachUsername(Consumer<String> consumer) {
+        try (Stream<String> usernames = em.createQuery("SELECT m.username FROM Member m", String.class)
+                .setHint(QueryHints.HINT_FETCH_SIZE, 1000)
+                .getResultStream()) {
+            long count = 0;
+            Iterator<String> iterator = usernames.iterator();
+            while (iterator.hasNext()) {
+                consumer.accept(iterator.next());
+                count++;
+            }
+            return count;
+        }
     }
 }
@@ -1,10 +1,15 @@
 package hello.springtx.propagation;
 
+import hello.springtx.jpa.JdbcBatchProperties;
+import hello.springtx.lock.KeyLock;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 
 import javax.transaction.Transactional;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
 
 @Slf4j
 @Service
@@ -13,8 +18,11 @@ public class MemberService {
 
     private final MemberRepository memberRepository;
     private final LogRepository logRepository;
+    private final LogWriter logWriter;
 
+    private final JdbcBatchProperties jdbcBatchProperties;
 
+    @KeyLock(value = "#username", name = "username")
     @Transactional
     public void joinV1(String username) {
         Member member = new Member(username);
@@ -25,10 +33,11 @@ public class MemberService {
         log.info("== memberRepository 호출 종료 ==");
 
         log.info("== logRepository 호출 시작 ==");
-        logRepository.save(logMessage);
+        logWriter.write(logMessage);
         log.info("== logRepository 호출 종료 ==");
     }
 
+    @KeyLock(value = "#username", name = "username")
     @Transactional
     public void joinV2(String username) {
         Member member = new Member(username);
@@ -40,7 +49,7 @@ public class MemberService {
 
         log.info("== logRepository 호출 시작 ==");
         try {
-            logRepository.save(logMessage);
+            logWriter.write(logMessage);
         } catch (RuntimeException e) {
             log.info("log 저장에 실패하였습니다. logMessage={}", logMessage.getMessage());
             log.info("정상 흐름 반환");
@@ -48,4 +57,36 @@ public class MemberService {
         log.info("== logRepository 호출 종료 ==");
     }
 
+    /**
+     * 대량 가입 : batchSize 단위로 member, log 저장
+     * member : 하나의 트랜잭션 (JDBC Batch)
+     * log    : batchSize 단위 REQUIRES_NEW, InvalidLogException 인 로그만 제외 (joinV2 와 동일)
+     *          그 밖의 로그 저장 예외는 joinAll 까지 전파 -> member 도 롤백
+     */
+    @Transactional
+    public void joinAll(Collection<String> usernames) {
+        log.info("== joinAll 시작 size={} ==", usernames.size());
+        int batchSize = jdbcBatchProperties.getBatchSize();
+        List<Member> members = new ArrayList<>(batchSize);
+        List<Log> logMessages = new ArrayList<>(batchSize);
+
+        for (String username : usernames) {
+            members.add(new Member(username));
+            logMessages.add(new Log(username));
+            if (members.size() == batchSize) {
+                saveChunk(members, logMessages);
+            }
+        }
+        if (!members.isEmpty()) {
+            saveChunk(members, logMessages);
+        }
+        log.info("== joinAll 종료 ==");
+    }
+
+    private void saveChunk(List<Member> members, List<Log> logMessages) {
+        memberRepository.saveAll(members);
+        logRepository.saveAll(logMessages);
+        members.clear();
+        logMessages.clear();
+    }
 }
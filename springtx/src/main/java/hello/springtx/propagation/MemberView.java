@@ -0,0 +1,19 @@
+package hello.springtx.propagation;
+
+import lombok.Getter;
+
+/**
+ * 조회 전용 회원 정보 (생성자 프로젝션)
+ * 영속성 컨텍스트에 올라가지 않아 스냅샷, 더티 체킹 비용이 없음
+ */
+@Getter
+public class MemberView {
+
+    private final Long id;
+    private final String username;
+
+    public MemberView(Long id, String username) {
+        this.id = id;
+        this.username = username;
+    }
+}
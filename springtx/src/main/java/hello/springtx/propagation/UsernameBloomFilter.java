@@ -0,0 +1,109 @@
+package hello.springtx.propagation;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * 회원 username 블룸 필터
+ * mightContain=false 이면 확실히 없는 회원 -> DB 조회 생략
+ * mightContain=true  이면 있을 수도 있음 (오탐률 fpp) -> DB 조회
+ *
+ * 시작 시 UsernameBloomFilterLoader 가 전체 username 을 읽어 채우기 전까지는 항상 true
+ * 저장한 username 은 커밋 후에 추가 (비트는 추가만 하므로 적재 중 커밋도 유실 없음)
+ */
+@Slf4j
+@Component
+public class UsernameBloomFilter {
+
+    private final AtomicLongArray bits;
+    private final long numBits;
+    private final int numHashes;
+
+    private volatile boolean ready;
+
+    public UsernameBloomFilter(@Value("${springtx.member.bloom.expected-insertions:1000000}") long expectedInsertions,
+                               @Value("${springtx.member.bloom.fpp:0.01}") double fpp) {
+        long optimalBits = (long) Math.ceil(-expectedInsertions * Math.log(fpp) / (Math.log(2) * Math.log(2)));
+        this.numBits = Math.max(64, (optimalBits + 63) / 64 * 64);
+        this.numHashes = Math.max(1, (int) Math.round((double) numBits / expectedInsertions * Math.log(2)));
+        this.bits = new AtomicLongArray(Math.toIntExact(numBits / 64));
+        log.info("username bloom filter bits={}, hashes={}", numBits, numHashes);
+    }
+
+    public boolean mightContain(String username) {
+        if (!ready) {
+            return true;
+        }
+        long hash = hash(username);
+        long h1 = mix(hash);
+        long h2 = mix(hash ^ 0x9E3779B97F4A7C15L);
+        for (int i = 0; i < numHashes; i++) {
+            long bit = Math.floorMod(h1 + i * h2, numBits);
+            if ((bits.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public void put(String username) {
+        long hash = hash(username);
+        long h1 = mix(hash);
+        long h2 = mix(hash ^ 0x9E3779B97F4A7C15L);
+        for (int i = 0; i < numHashes; i++) {
+            long bit = Math.floorMod(h1 + i * h2, numBits);
+            long mask = 1L << bit;
+            bits.accumulateAndGet((int) (bit >>> 6), mask, (current, m) -> current | m);
+        }
+    }
+
+    public void putAllAfterCommit(Collection<String> usernames) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            usernames.forEach(this::put);
+            return;
+        }
+        List<String> committed = new ArrayList<>(usernames);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                committed.forEach(UsernameBloomFilter.this::put);
+            }
+        });
+    }
+
+    public void markReady() {
+        ready = true;
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    // FNV-1a 64
+    private static long hash(String value) {
+        long hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < value.length(); i++) {
+            hash ^= value.charAt(i);
+            hash *= 0x100000001b3L;
+        }
+        return hash;
+    }
+
+    // MurmurHash3 fmix64
+    private static long mix(long value) {
+        value ^= value >>> 33;
+        value *= 0xff51afd7ed558ccdL;
+        value ^= value >>> 33;
+        value *= 0xc4ceb9fe1a85ec53L;
+        value ^= value >>> 33;
+        return value;
+    }
+}
@@ -0,0 +1,27 @@
+package hello.springtx.propagation;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * 애플리케이션 시작 후 member 테이블 전체 username 을 스트리밍으로 읽어 블룸 필터 적재
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class UsernameBloomFilterLoader {
+
+    private final MemberRepository memberRepository;
+    private final UsernameBloomFilter bloomFilter;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        long start = System.currentTimeMillis();
+        long count = memberRepository.forEachUsername(bloomFilter::put);
+        bloomFilter.markReady();
+        log.info("username bloom filter loaded. count={}, {}ms", count, System.currentTimeMillis() - start);
+    }
+}
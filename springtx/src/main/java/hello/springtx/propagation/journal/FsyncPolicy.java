@@ -0,0 +1,16 @@
+package hello.springtx.propagation.journal;
+
+/**
+ * 저널 디스크 동기화 정책 (springtx.log.journal.fsync)
+ */
+public enum FsyncPolicy {
+
+    // OS 에 맡김 (프로세스 종료에는 안전, 장비 장애 시 유실 가능)
+    NONE,
+
+    // fsync-interval 마다 force
+    INTERVAL,
+
+    // append 마다 force (가장 느림)
+    ALWAYS
+}
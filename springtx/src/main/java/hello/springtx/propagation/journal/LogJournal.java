@@ -0,0 +1,169 @@
+package hello.springtx.propagation.journal;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+/**
+ * 메모리 맵 append-only 로그 저널
+ *
+ * 세그먼트 : segment-{index}.log, segmentSize 크기로 미리 할당 (0 으로 채워짐)
+ * 레코드   : [length(4)][crc32(4)][UTF-8 message]
+ * 복구     : length 가 0 이거나 범위를 벗어나거나 CRC 가 다르면 그 지점이 세그먼트의 끝
+ *           시작 시 마지막 세그먼트(비정상 종료 시 쓰던 세그먼트)는 닫힌 세그먼트로 처리하고 새 세그먼트에서 시작
+ */
+@Slf4j
+public class LogJournal implements Closeable {
+
+    private static final int HEADER_SIZE = 8;
+    private static final String PREFIX = "segment-";
+    private static final String SUFFIX = ".log";
+
+    private final Path directory;
+    private final int segmentSize;
+    private final FsyncPolicy fsyncPolicy;
+    private final CRC32 crc = new CRC32();
+
+    private long segmentIndex;
+    private FileChannel channel;
+    private MappedByteBuffer buffer;
+
+    public LogJournal(Path directory, int segmentSize, FsyncPolicy fsyncPolicy) throws IOException {
+        this.directory = directory;
+        this.segmentSize = segmentSize;
+        this.fsyncPolicy = fsyncPolicy;
+
+        Files.createDirectories(directory);
+        List<Path> segments = segments();
+        if (!segments.isEmpty()) {
+            Path last = segments.get(segments.size() - 1);
+            log.info("journal recovery. segment={}, records={}", last.getFileName(), readRecords(last).size());
+            segmentIndex = index(last);
+        }
+        openSegment(segmentIndex + 1);
+    }
+
+    public synchronized void append(String message) {
+        byte[] payload = message.getBytes(StandardCharsets.UTF_8);
+        if (payload.length == 0 || HEADER_SIZE + payload.length > segmentSize) {
+            throw new IllegalArgumentException("journal record size out of range. size=" + payload.length);
+        }
+        if (buffer.remaining() < HEADER_SIZE + payload.length) {
+            rotate();
+        }
+
+        crc.reset();
+        crc.update(payload);
+        buffer.putInt(payload.length);
+        buffer.putInt((int) crc.getValue());
+        buffer.put(payload);
+
+        if (fsyncPolicy == FsyncPolicy.ALWAYS) {
+            buffer.force();
+        }
+    }
+
+    public synchronized void force() {
+        buffer.force();
+    }
+
+    /**
+     * 현재 세그먼트에 레코드가 있으면 닫고 새 세그먼트 시작 (압축 대상으로 만들기)
+     */
+    public synchronized void rotateIfNotEmpty() {
+        if (buffer.position() > 0) {
+            rotate();
+        }
+    }
+
+    /**
+     * 쓰기가 끝난 세그먼트 (오래된 순서)
+     */
+    public synchronized List<Path> closedSegments() throws IOException {
+        long current = segmentIndex;
+        return segments().stream()
+                .filter(segment -> index(segment) < current)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * 유효한 레코드만 읽음 (비정상 종료로 잘린 레코드 이후는 무시)
+     */
+    public static List<String> readRecords(Path segment) throws IOException {
+        List<String> records = new ArrayList<>();
+        try (FileChannel readChannel = FileChannel.open(segment, StandardOpenOption.READ)) {
+            MappedByteBuffer readBuffer = readChannel.map(FileChannel.MapMode.READ_ONLY, 0, readChannel.size());
+            CRC32 readCrc = new CRC32();
+            while (readBuffer.remaining() >= HEADER_SIZE) {
+                int length = readBuffer.getInt();
+                int checksum = readBuffer.getInt();
+                if (length <= 0 || length > readBuffer.remaining()) {
+                    break;
+                }
+                byte[] payload = new byte[length];
+                readBuffer.get(payload);
+                readCrc.reset();
+                readCrc.update(payload);
+                if ((int) readCrc.getValue() != checksum) {
+                    log.warn("journal corrupted record. segment={}, position={}",
+                            segment.getFileName(), readBuffer.position() - length - HEADER_SIZE);
+                    break;
+                }
+                records.add(new String(payload, StandardCharsets.UTF_8));
+            }
+        }
+        return records;
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        buffer.force();
+        channel.close();
+    }
+
+    private void rotate() {
+        try {
+            buffer.force();
+            channel.close();
+            openSegment(segmentIndex + 1);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void openSegment(long index) throws IOException {
+        Path segment = directory.resolve(String.format("%s%020d%s", PREFIX, index, SUFFIX));
+        channel = FileChannel.open(segment, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentSize);
+        segmentIndex = index;
+    }
+
+    private List<Path> segments() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(file -> {
+                        String name = file.getFileName().toString();
+                        return name.startsWith(PREFIX) && name.endsWith(SUFFIX);
+                    })
+                    .sorted()
+                    .collect(Collectors.toList());
+        }
+    }
+
+    private static long index(Path segment) {
+        String name = segment.getFileName().toString();
+        return Long.parseLong(name.substring(PREFIX.length(), name.length() - SUFFIX.length()));
+    }
+}
@@ -0,0 +1,106 @@
+package hello.springtx.propagation.journal;
+
+import hello.springtx.propagation.Log;
+import hello.springtx.propagation.LogRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.SmartLifecycle;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 닫힌 저널 세그먼트를 Log 테이블로 일괄 저장 후 삭제
+ * 저장 후 삭제 전에 종료되면 다음 압축에서 다시 저장 (at-least-once)
+ */
+@Slf4j
+public class LogJournalCompactor implements SmartLifecycle {
+
+    private static final int CHUNK_SIZE = 1000;
+
+    private final LogJournal journal;
+    private final LogRepository logRepository;
+    private final FsyncPolicy fsyncPolicy;
+    private final Duration fsyncInterval;
+    private final Duration compactionInterval;
+
+    private ScheduledExecutorService scheduler;
+
+    public LogJournalCompactor(LogJournal journal, LogRepository logRepository, FsyncPolicy fsyncPolicy,
+                               Duration fsyncInterval, Duration compactionInterval) {
+        this.journal = journal;
+        this.logRepository = logRepository;
+        this.fsyncPolicy = fsyncPolicy;
+        this.fsyncInterval = fsyncInterval;
+        this.compactionInterval = compactionInterval;
+    }
+
+    /**
+     * @return Log 테이블로 옮긴 레코드 수
+     */
+    public synchronized int compact() throws IOException {
+        journal.rotateIfNotEmpty();
+
+        int total = 0;
+        for (Path segment : journal.closedSegments()) {
+            List<String> records = LogJournal.readRecords(segment);
+            for (int from = 0; from < records.size(); from += CHUNK_SIZE) {
+                List<Log> logMessages = new ArrayList<>();
+                for (String message : records.subList(from, Math.min(from + CHUNK_SIZE, records.size()))) {
+                    logMessages.add(new Log(message));
+                }
+                logRepository.saveAll(logMessages);
+            }
+            Files.delete(segment);
+            total += records.size();
+            log.info("journal segment compacted. segment={}, records={}", segment.getFileName(), records.size());
+        }
+        return total;
+    }
+
+    @Override
+    public void start() {
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "log-journal-compactor");
+            thread.setDaemon(true);
+            return thread;
+        });
+        if (fsyncPolicy == FsyncPolicy.INTERVAL) {
+            scheduler.scheduleWithFixedDelay(journal::force,
+                    fsyncInterval.toMillis(), fsyncInterval.toMillis(), TimeUnit.MILLISECONDS);
+        }
+        scheduler.scheduleWithFixedDelay(this::compactSafely,
+                compactionInterval.toMillis(), compactionInterval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public void stop() {
+        scheduler.shutdown();
+        try {
+            scheduler.awaitTermination(compactionInterval.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        compactSafely();
+        scheduler = null;
+    }
+
+    @Override
+    public boolean isRunning() {
+        return scheduler != null;
+    }
+
+    private void compactSafely() {
+        try {
+            compact();
+        } catch (IOException | RuntimeException e) {
+            log.warn("journal compaction failed", e);
+        }
+    }
+}
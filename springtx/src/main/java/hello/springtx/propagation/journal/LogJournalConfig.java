@@ -0,0 +1,36 @@
+package hello.springtx.propagation.journal;
+
+import hello.springtx.propagation.LogRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+
+/**
+ * springtx.log.mode=JOURNAL
+ */
+@Configuration
+@ConditionalOnProperty(name = "springtx.log.mode", havingValue = "JOURNAL")
+public class LogJournalConfig {
+
+    @Value("${springtx.log.journal.fsync:INTERVAL}")
+    private FsyncPolicy fsyncPolicy;
+
+    @Bean(destroyMethod = "close")
+    public LogJournal logJournal(@Value("${springtx.log.journal.directory:log-journal}") Path directory,
+                                 @Value("${springtx.log.journal.segment-size:16MB}") DataSize segmentSize) throws IOException {
+        return new LogJournal(directory, Math.toIntExact(segmentSize.toBytes()), fsyncPolicy);
+    }
+
+    @Bean
+    public LogJournalCompactor logJournalCompactor(LogJournal logJournal, LogRepository logRepository,
+                                                   @Value("${springtx.log.journal.fsync-interval:100ms}") Duration fsyncInterval,
+                                                   @Value("${springtx.log.journal.compaction-interval:10s}") Duration compactionInterval) {
+        return new LogJournalCompactor(logJournal, logRepository, fsyncPolicy, fsyncInterval, compactionInterval);
+    }
+}
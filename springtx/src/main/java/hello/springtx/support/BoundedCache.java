@@ -0,0 +1,148 @@
+package hello.springtx.support;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.ToString;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 크기 LRU + TTL 캐시 (MemberCache, IdempotencyCache)
+ *
+ * stripes 개의 LinkedHashMap(접근 순서)으로 나누어 잠금 -> 동시 요청 간 경합 감소
+ * 전체 크기는 maxSize, stripe 마다 maxSize / stripes 까지 보관 (stripes=1 이면 정확한 LRU)
+ * maxSize <= 0 이면 사용 안 함 (get 은 항상 null, put 은 무시)
+ *
+ * putAfterCommit : 트랜잭션 안이면 커밋 이후에만 반영 -> 롤백된 값이 캐시에 남지 않음
+ * 값은 불변 객체만 저장 (여러 스레드가 같은 인스턴스를 공유)
+ */
+public class BoundedCache<K, V> {
+
+    private final int maxSize;
+    private final long ttlNanos;
+    private final Striped<Stripe> stripes;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    public BoundedCache(int maxSize, Duration ttl, int stripes) {
+        this.maxSize = maxSize;
+        this.ttlNanos = ttl.toNanos();
+        int stripeSize = Math.max(1, maxSize / Striped.count(stripes));
+        this.stripes = new Striped<>(stripes, () -> new Stripe(stripeSize));
+    }
+
+    /**
+     * @return 캐시에 없거나 만료되면 null
+     */
+    public V get(K key) {
+        if (maxSize <= 0) {
+            return null;
+        }
+        Stripe stripe = stripes.get(key);
+        synchronized (stripe) {
+            Entry<V> entry = stripe.get(key);
+            if (entry == null) {
+                misses.increment();
+                return null;
+            }
+            if (System.nanoTime() - entry.createdAt > ttlNanos) {
+                stripe.remove(key);
+                evictions.increment();
+                misses.increment();
+                return null;
+            }
+            hits.increment();
+            return entry.value;
+        }
+    }
+
+    public void putAfterCommit(K key, V value) {
+        putAllAfterCommit(Map.of(key, value));
+    }
+
+    /**
+     * @param values 호출 시점의 값으로 복사해서 보관
+     */
+    public void putAllAfterCommit(Map<K, V> values) {
+        if (maxSize <= 0 || values.isEmpty()) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            putAll(values);
+            return;
+        }
+        Map<K, V> committed = new LinkedHashMap<>(values);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                putAll(committed);
+            }
+        });
+    }
+
+    private void putAll(Map<K, V> values) {
+        long now = System.nanoTime();
+        for (Map.Entry<K, V> value : values.entrySet()) {
+            Stripe stripe = stripes.get(value.getKey());
+            synchronized (stripe) {
+                stripe.put(value.getKey(), new Entry<>(value.getValue(), now));
+            }
+        }
+    }
+
+    public CacheStats stats() {
+        int size = 0;
+        for (int i = 0; i < stripes.size(); i++) {
+            Stripe stripe = stripes.at(i);
+            synchronized (stripe) {
+                size += stripe.size();
+            }
+        }
+        return new CacheStats(size, hits.sum(), misses.sum(), evictions.sum());
+    }
+
+
+    private class Stripe extends LinkedHashMap<K, Entry<V>> {
+
+        private final int maxSize;
+
+        Stripe(int maxSize) {
+            super(16, 0.75f, true);
+            this.maxSize = maxSize;
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<K, Entry<V>> eldest) {
+            if (size() > maxSize) {
+                evictions.increment();
+                return true;
+            }
+            return false;
+        }
+    }
+
+
+    @RequiredArgsConstructor
+    private static class Entry<V> {
+        private final V value;
+        private final long createdAt;
+    }
+
+
+    @Getter
+    @ToString
+    @RequiredArgsConstructor
+    public static class CacheStats {
+        private final int size;
+        private final long hits;
+        private final long misses;
+        private final long evictions;
+    }
+}
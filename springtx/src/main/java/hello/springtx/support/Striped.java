@@ -0,0 +1,44 @@
+package hello.springtx.support;
+
+import java.util.function.Supplier;
+
+/**
+ * 키 해시로 선택하는 고정 크기 stripe 배열 (락, 맵 등)
+ * stripe 수는 2의 거듭제곱으로 올림 -> 나머지 연산 대신 mask 로 선택
+ * 다른 키가 같은 stripe 에 걸릴 수 있음 (stripe 수를 동시 사용 수보다 충분히 크게)
+ */
+public class Striped<T> {
+
+    private final Object[] stripes;
+    private final int mask;
+
+    public Striped(int stripes, Supplier<T> factory) {
+        int count = count(stripes);
+        this.stripes = new Object[count];
+        for (int i = 0; i < count; i++) {
+            this.stripes[i] = factory.get();
+        }
+        this.mask = count - 1;
+    }
+
+    /**
+     * 실제 stripe 수 (2의 거듭제곱으로 올림)
+     */
+    public static int count(int stripes) {
+        return stripes <= 1 ? 1 : Integer.highestOneBit(stripes - 1) << 1;
+    }
+
+    public T get(Object key) {
+        int hash = key.hashCode();
+        return at((hash ^ (hash >>> 16)) & mask);   // 상위 비트도 섞어서 선택
+    }
+
+    @SuppressWarnings("unchecked")
+    public T at(int index) {
+        return (T) stripes[index];
+    }
+
+    public int size() {
+        return stripes.length;
+    }
+}
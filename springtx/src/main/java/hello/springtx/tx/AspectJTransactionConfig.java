@@ -0,0 +1,20 @@
+package hello.springtx.tx;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.AdviceMode;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.transaction.annotation.EnableTransactionManagement;
+
+/**
+ * springtx.tx.mode=aspectj (./gradlew build -Paspectj 로 빌드하면 자동 설정)
+ * 프록시 대신 컴파일 시점에 위빙된 AspectJ 애스펙트로 트랜잭션 적용
+ * - 내부 호출(this.internal()), private 메서드의 @Transactional 도 적용
+ * - 프록시를 거치지 않음 (빈은 프록시가 아닌 원본 클래스)
+ * spring.Transactional -> AnnotationTransactionAspect, javax.Transactional -> JtaAnnotationTransactionAspect
+ * 위빙하지 않은 빌드에서 사용하면 @Transactional 이 적용되지 않음
+ */
+@Configuration
+@ConditionalOnProperty(name = "springtx.tx.mode", havingValue = "aspectj")
+@EnableTransactionManagement(mode = AdviceMode.ASPECTJ)
+public class AspectJTransactionConfig {
+}
@@ -0,0 +1,315 @@
+package hello.springtx.tx;
+
+import hello.springtx.metrics.Histogram;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.ToString;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.DefaultTransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * springtx.tx.group-commit.enabled=true
+ * 여러 호출자의 작은 작업을 물리 트랜잭션 1개로 모아서 커밋 (커밋, fsync 횟수 감소)
+ *
+ * submit : 작업을 큐에 넣고 CompletableFuture 반환 (execute 는 완료까지 대기)
+ * worker : 첫 작업 후 max-linger 동안 max-batch-size 까지 모아서 한 트랜잭션으로 실행
+ *          작업마다 세이브포인트 -> 실패한 작업만 롤백 (afterCommit 콜백 포함), 나머지는 함께 커밋
+ *          JPA 예외로 트랜잭션 전체가 rollbackOnly 가 되면 실패한 작업을 빼고 다시 실행
+ *          커밋이 실패하면 작업을 하나씩 따로 실행
+ * stop   : 실행 중인 배치까지 처리 후 큐에 남은 작업은 예외로 완료
+ *
+ * 작업(Supplier)은 두 번 이상 실행될 수 있음 -> 엔티티는 Supplier 안에서 새로 만들고 외부 상태를 바꾸지 말 것
+ *   (롤백된 시도에서 persist 한 엔티티는 id 가 남아 있어 다시 persist 하면 detached 예외)
+ * 작업은 worker 스레드에서 실행 -> 호출자 스레드의 트랜잭션, ThreadLocal 과 무관
+ * 커밋 전까지 결과를 돌려주지 않으므로 호출자 지연시간은 최대 max-linger 만큼 증가
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "springtx.tx.group-commit.enabled", havingValue = "true")
+public class GroupCommitExecutor implements SmartLifecycle {
+
+    private final PlatformTransactionManager txManager;
+    private final int maxBatchSize;
+    private final Duration maxLinger;
+
+    private final BlockingQueue<Item<?>> queue;
+    private final DefaultTransactionDefinition definition = new DefaultTransactionDefinition();
+    private final Histogram batchSizes = new Histogram();
+    private final LongAdder commits = new LongAdder();
+    private final LongAdder retries = new LongAdder();
+
+    private volatile Thread worker;
+    private volatile boolean running;
+
+    public GroupCommitExecutor(PlatformTransactionManager txManager,
+                               @Value("${springtx.tx.group-commit.max-batch-size:64}") int maxBatchSize,
+                               @Value("${springtx.tx.group-commit.max-linger:2ms}") Duration maxLinger,
+                               @Value("${springtx.tx.group-commit.max-pending:10000}") int maxPending) {
+        this.txManager = txManager;
+        this.maxBatchSize = maxBatchSize;
+        this.maxLinger = maxLinger;
+        this.queue = new LinkedBlockingQueue<>(maxPending);
+        this.definition.setName("GroupCommitExecutor.batch");
+    }
+
+    /**
+     * 같은 배치의 다른 작업 때문에 롤백되면 work 를 다시 실행함 -> 다시 실행해도 안전해야 함
+     */
+    public <T> CompletableFuture<T> submit(Supplier<T> work) {
+        if (!running) {
+            throw new IllegalStateException("group commit executor is not running");
+        }
+        Item<T> item = new Item<>(work);
+        try {
+            // 배압 : 큐가 가득 차면 max-linger 동안 대기 후 실패
+            if (!queue.offer(item, maxLinger.toNanos() + TimeUnit.SECONDS.toNanos(1), TimeUnit.NANOSECONDS)) {
+                throw new IllegalStateException("group commit queue full. pending=" + queue.size());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("interrupted while submitting to group commit", e);
+        }
+        // running 확인과 offer 사이에 stop() 이 큐를 비웠을 수 있음 -> 아직 큐에 있으면 직접 실패 처리
+        if (!running && queue.remove(item)) {
+            item.fail(new IllegalStateException("group commit executor is not running"));
+        }
+        return item.future;
+    }
+
+    /**
+     * 작업이 커밋될 때까지 대기, 작업의 RuntimeException 은 그대로 던짐
+     * work 는 submit 과 같이 여러 번 실행될 수 있음
+     */
+    public <T> T execute(Supplier<T> work) {
+        try {
+            return submit(work).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("interrupted while waiting for group commit", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new CompletionException(cause);
+        }
+    }
+
+    private void runWorker() {
+        List<Item<?>> batch = new ArrayList<>(maxBatchSize);
+        while (running) {
+            try {
+                Item<?> first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                long deadline = System.nanoTime() + maxLinger.toNanos();
+                while (batch.size() < maxBatchSize) {
+                    Item<?> next = queue.poll(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                running = false;
+            }
+            if (!batch.isEmpty()) {
+                runBatch(batch);
+                batch.clear();
+            }
+        }
+    }
+
+    void runBatch(List<Item<?>> batch) {
+        batchSizes.record(batch.size());
+        List<Item<?>> pending = batch;
+        while (!pending.isEmpty()) {
+            pending = attempt(pending);
+        }
+    }
+
+    /**
+     * @return 다시 실행할 작업 (트랜잭션 전체가 rollbackOnly 가 된 경우)
+     */
+    private List<Item<?>> attempt(List<Item<?>> items) {
+        List<Item<?>> done = new ArrayList<>(items.size());
+        TransactionStatus status;
+        try {
+            status = txManager.getTransaction(definition);
+        } catch (RuntimeException e) {
+            items.forEach(item -> item.fail(e));
+            return Collections.emptyList();
+        }
+
+        for (int i = 0; i < items.size(); i++) {
+            Item<?> item = items.get(i);
+            Object savepoint = status.createSavepoint();
+            List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+            try {
+                item.run();
+                status.flush();   // 작업의 SQL 오류가 이 작업의 세이브포인트 안에서 발생하도록
+                status.releaseSavepoint(savepoint);
+                done.add(item);
+            } catch (RuntimeException | Error e) {
+                item.fail(e);
+                if (rollbackToSavepoint(status, savepoint)) {
+                    discardSynchronizationsSince(synchronizations);
+                } else {
+                    // 트랜잭션 전체 롤백 후 성공했던 작업 + 남은 작업 다시 실행
+                    txManager.rollback(status);
+                    retries.increment();
+                    List<Item<?>> retry = new ArrayList<>(done);
+                    retry.addAll(items.subList(i + 1, items.size()));
+                    return retry;
+                }
+            }
+        }
+
+        try {
+            txManager.commit(status);
+        } catch (RuntimeException e) {
+            if (done.size() <= 1) {
+                done.forEach(item -> item.fail(e));
+                return Collections.emptyList();
+            }
+            // 어느 작업 때문인지 알 수 없으므로 하나씩 따로 실행
+            retries.increment();
+            for (Item<?> item : done) {
+                runBatch(Collections.singletonList(item));
+            }
+            return Collections.emptyList();
+        }
+        commits.increment();
+        done.forEach(Item::complete);
+        return Collections.emptyList();
+    }
+
+    /**
+     * 롤백한 작업이 등록한 afterCommit 콜백 제거 (예: MemberCache, 블룸 필터 반영)
+     * 세이브포인트 롤백은 동기화를 해제하지 않으므로 작업 전 목록으로 되돌림
+     */
+    private void discardSynchronizationsSince(List<TransactionSynchronization> before) {
+        if (TransactionSynchronizationManager.getSynchronizations().size() == before.size()) {
+            return;
+        }
+        TransactionSynchronizationManager.clearSynchronization();
+        TransactionSynchronizationManager.initSynchronization();
+        before.forEach(TransactionSynchronizationManager::registerSynchronization);
+    }
+
+    private boolean rollbackToSavepoint(TransactionStatus status, Object savepoint) {
+        if (status.isRollbackOnly()) {
+            return false;
+        }
+        try {
+            status.rollbackToSavepoint(savepoint);
+            return true;
+        } catch (RuntimeException e) {
+            log.warn("rollback to savepoint failed", e);
+            return false;
+        }
+    }
+
+    public GroupCommitSnapshot snapshot() {
+        return new GroupCommitSnapshot(queue.size(), commits.sum(), retries.sum(), batchSizes.snapshot());
+    }
+
+    @Override
+    public void start() {
+        running = true;
+        worker = new Thread(this::runWorker, "group-commit-worker");
+        worker.setDaemon(true);
+        worker.start();
+        log.info("group commit executor started. maxBatchSize={}, maxLinger={}", maxBatchSize, maxLinger);
+    }
+
+    @Override
+    public void stop() {
+        // 인터럽트하지 않음 : 실행 중인 작업의 JDBC 호출이 끊기지 않도록 poll 타임아웃(100ms) 후 종료
+        running = false;
+        Thread thread = worker;
+        if (thread != null) {
+            try {
+                thread.join(TimeUnit.SECONDS.toMillis(10));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        worker = null;
+
+        List<Item<?>> remaining = new ArrayList<>();
+        queue.drainTo(remaining);
+        IllegalStateException stopped = new IllegalStateException("group commit executor stopped");
+        remaining.forEach(item -> item.fail(stopped));
+        if (!remaining.isEmpty()) {
+            log.warn("group commit executor stopped. failed pending={}", remaining.size());
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+
+    private static class Item<T> {
+
+        private final Supplier<T> work;
+        private final CompletableFuture<T> future = new CompletableFuture<>();
+        private T result;
+
+        Item(Supplier<T> work) {
+            this.work = work;
+        }
+
+        void run() {
+            result = work.get();
+        }
+
+        void complete() {
+            future.complete(result);
+        }
+
+        void fail(Throwable e) {
+            future.completeExceptionally(e);
+        }
+    }
+
+
+    @Getter
+    @ToString
+    @RequiredArgsConstructor
+    public static class GroupCommitSnapshot {
+        private final int pending;
+        private final long commits;
+        private final long retries;
+        private final Histogram.Snapshot batchSizes;
+    }
+}
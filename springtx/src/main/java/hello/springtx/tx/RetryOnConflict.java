@@ -0,0 +1,25 @@
+package hello.springtx.tx;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * 낙관적 락 충돌(@Version), 교착 상태/락 획득 실패 시 트랜잭션 전체를 다시 실행
+ * RetryOnConflictAspect 가 트랜잭션 AOP 바깥에서 실행 -> 재시도마다 새 트랜잭션, 새 영속성 컨텍스트
+ *
+ * 이미 시작된 트랜잭션 안에서 호출되면 재시도하지 않음 (외부 트랜잭션이 이미 rollbackOnly)
+ * 재시도 대기 : 0 ~ min(maxBackoff, backoff * 2^(시도-1)) 사이 임의 시간 (full jitter)
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface RetryOnConflict {
+
+    // 최초 실행 포함 최대 실행 횟수
+    int maxAttempts() default 5;
+
+    long backoffMillis() default 5;
+
+    long maxBackoffMillis() default 200;
+}
@@ -0,0 +1,95 @@
+package hello.springtx.tx;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.ToString;
+import lombok.extern.slf4j.Slf4j;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * @RetryOnConflict 처리
+ * 트랜잭션 AOP(LOWEST_PRECEDENCE) 보다 먼저 실행 -> 트랜잭션이 롤백된 뒤 예외를 받아서 다시 호출
+ *
+ * 재시도 대상 : ConcurrencyFailureException
+ *   OptimisticLockingFailureException (ObjectOptimisticLockingFailureException : @Version 충돌)
+ *   PessimisticLockingFailureException (CannotAcquireLockException, DeadlockLoserDataAccessException)
+ */
+@Slf4j
+@Aspect
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class RetryOnConflictAspect {
+
+    private final LongAdder conflicts = new LongAdder();
+    private final LongAdder retries = new LongAdder();
+    private final LongAdder exhausted = new LongAdder();
+
+    @Around("@annotation(retryOnConflict)")
+    public Object retry(ProceedingJoinPoint joinPoint, RetryOnConflict retryOnConflict) throws Throwable {
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            // 외부 트랜잭션에 참여 : 충돌 시 외부 트랜잭션을 다시 실행해야 하므로 여기서는 재시도 X
+            return joinPoint.proceed();
+        }
+
+        int maxAttempts = Math.max(1, retryOnConflict.maxAttempts());
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return joinPoint.proceed();
+            } catch (ConcurrencyFailureException e) {
+                conflicts.increment();
+                if (attempt >= maxAttempts) {
+                    exhausted.increment();
+                    log.warn("conflict retry exhausted. method={}, attempts={}", joinPoint.getSignature().toShortString(), attempt);
+                    throw e;
+                }
+                retries.increment();
+                long backoff = backoffMillis(retryOnConflict, attempt);
+                log.debug("conflict. retry method={}, attempt={}, backoff={}ms, cause={}",
+                        joinPoint.getSignature().toShortString(), attempt, backoff, e.toString());
+                try {
+                    sleep(backoff);
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    throw e;
+                }
+            }
+        }
+    }
+
+    private long backoffMillis(RetryOnConflict retryOnConflict, int attempt) {
+        long ceiling = Math.min(retryOnConflict.maxBackoffMillis(),
+                retryOnConflict.backoffMillis() << Math.min(attempt - 1, 20));
+        return ceiling <= 0 ? 0 : ThreadLocalRandom.current().nextLong(ceiling + 1);
+    }
+
+    private void sleep(long millis) throws InterruptedException {
+        if (millis > 0) {
+            TimeUnit.MILLISECONDS.sleep(millis);
+        }
+    }
+
+    public RetrySnapshot snapshot() {
+        return new RetrySnapshot(conflicts.sum(), retries.sum(), exhausted.sum());
+    }
+
+
+    @Getter
+    @ToString
+    @RequiredArgsConstructor
+    public static class RetrySnapshot {
+        private final long conflicts;
+        private final long retries;
+        private final long exhausted;
+    }
+}
@@ -0,0 +1,24 @@
+-- orders.pay_status : 문자열(대기, 완료) -> smallint code (PayStatus)
+-- 기존 DB 에 1회 실행 (ddl-auto 로 생성한 스키마에는 필요 없음)
+-- 표준 SQL 문법만 사용 (H2, PostgreSQL, MySQL 8 등)
+
+ALTER TABLE orders ADD COLUMN pay_status_code SMALLINT;
+
+-- 알 수 없는 값은 -1 로 표시 (NULL 은 그대로 NULL)
+UPDATE orders SET pay_status_code = CASE
+    WHEN pay_status IS NULL THEN NULL
+    WHEN pay_status = '대기' THEN 1
+    WHEN pay_status = '완료' THEN 2
+    ELSE -1
+END;
+
+-- 사전 검사 : -1 인 행이 있으면 제약 추가가 실패 -> 기존 컬럼을 지우기 전에 중단
+-- 확인 : SELECT pay_status, COUNT(*) FROM orders WHERE pay_status_code = -1 GROUP BY pay_status;
+ALTER TABLE orders ADD CONSTRAINT ck_orders_pay_status_code CHECK (pay_status_code IN (1, 2));
+ALTER TABLE orders DROP CONSTRAINT ck_orders_pay_status_code;
+
+ALTER TABLE orders DROP COLUMN pay_status;
+ALTER TABLE orders RENAME COLUMN pay_status_code TO pay_status;
+
+-- 대기 주문 조회용 (PostgreSQL 등 부분 인덱스 지원 DB : CREATE INDEX ... ON orders (id) WHERE pay_status = 1)
+CREATE INDEX idx_orders_pay_status_id ON orders (pay_status, id);
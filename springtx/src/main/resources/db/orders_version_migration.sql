@@ -0,0 +1,4 @@
+-- orders.version : 낙관적 락 (Order.@Version)
+-- 기존 DB 에 1회 실행 (ddl-auto 로 생성한 스키마에는 필요 없음)
+
+ALTER TABLE orders ADD COLUMN version BIGINT DEFAULT 0 NOT NULL;
@@ -0,0 +1,85 @@
+package hello.springtx.apply;
+
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * ./gradlew test -Paspectj
+ * InternalCallV1Test 와 같은 구조지만 AspectJ 위빙으로 내부 호출, private 메서드에도 트랜잭션 적용
+ * */
+@Slf4j
+@SpringBootTest
+@EnabledIfSystemProperty(named = "springtx.tx.mode", matches = "aspectj")
+class AspectJInternalCallTest {
+
+    @Autowired CallService callService;
+
+    @Test
+    void notProxy() {
+        log.info("callService class={}", callService.getClass());
+        assertThat(AopUtils.isAopProxy(callService)).isFalse();
+    }
+
+    @Test
+    void internalCall() {
+        // this.internal() 호출에도 트랜잭션 적용
+        assertThat(callService.external()).isTrue();
+    }
+
+    @Test
+    void privateCall() {
+        // private 메서드에도 트랜잭션 적용
+        assertThat(callService.externalPrivate()).isTrue();
+    }
+
+    @Test
+    void nonTx() {
+        assertThat(callService.nonTx()).isFalse();
+    }
+
+
+    @TestConfiguration
+    static class AspectJInternalCallTestConfig {
+
+        @Bean
+        CallService callService() {
+            return new CallService();
+        }
+    }
+
+
+    static class CallService {
+
+        public boolean external() {
+            return internal();
+        }
+
+        @Transactional
+        public boolean internal() {
+            return TransactionSynchronizationManager.isActualTransactionActive();
+        }
+
+        public boolean externalPrivate() {
+            return privateInternal();
+        }
+
+        @Transactional
+        private boolean privateInternal() {
+            return TransactionSynchronizationManager.isActualTransactionActive();
+        }
+
+        public boolean nonTx() {
+            return TransactionSynchronizationManager.isActualTransactionActive();
+        }
+    }
+}
@@ -3,6 +3,7 @@ package hello.springtx.apply;
 import lombok.extern.slf4j.Slf4j;
 import org.assertj.core.api.Assertions;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.DisabledIfSystemProperty;
 import org.springframework.aop.support.AopUtils;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
@@ -19,7 +20,9 @@ public class TxBasicTest {
 
     @Autowired BasicService basicService;
 
+    // AspectJ 위빙 모드는 프록시를 만들지 않음
     @Test
+    @DisabledIfSystemProperty(named = "springtx.tx.mode", matches = "aspectj")
     void proxyCheck() {
         log.info("AOP class={}", basicService.getClass());
         // Alt + Enter  =>  Static 적용
@@ -0,0 +1,68 @@
+package hello.springtx.datasource;
+
+import hello.springtx.propagation.LogRepository;
+import hello.springtx.propagation.MemberRepository;
+import hello.springtx.propagation.MemberService;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * main 풀 1개 + side 풀 1개
+ * REQUIRES_NEW 는 side 풀에서 커넥션 획득 -> 동시 joinV1 호출에도 교착 상태 없음
+ * */
+@Slf4j
+@SpringBootTest(properties = {
+        "springtx.datasource.side-pool.enabled=true",
+        "springtx.datasource.side-pool.hikari.maximum-pool-size=1",
+        "spring.datasource.hikari.maximum-pool-size=1",
+        "spring.datasource.hikari.connection-timeout=2000"
+})
+class SidePoolLoadTest {
+
+    static final int THREADS = 8;
+    static final int REQUESTS = 80;
+
+    @Autowired MemberService memberService;
+    @Autowired MemberRepository memberRepository;
+    @Autowired LogRepository logRepository;
+    @Autowired ConnectionPoolMetrics poolMetrics;
+
+    @Test
+    void concurrentJoin() throws Exception {
+        // given
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        List<Future<?>> futures = new ArrayList<>();
+
+        // When
+        long start = System.nanoTime();
+        for (int i = 0; i < REQUESTS; i++) {
+            String username = "sidePool_" + i;
+            futures.add(executor.submit(() -> memberService.joinV1(username)));
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+        executor.shutdown();
+
+        log.info("{} joinV1 calls, {} threads, {}ms", REQUESTS, THREADS, elapsedMs);
+        poolMetrics.snapshot().forEach(pool -> log.info("pool={}", pool));
+
+        // Then: 모든 요청 성공, REQUIRES_NEW 는 side 풀 사용
+        assertThat(memberRepository.find("sidePool_0")).isPresent();
+        assertThat(logRepository.find("sidePool_" + (REQUESTS - 1))).isPresent();
+        assertThat(poolMetrics.snapshot(SidePoolRoutingDataSource.MAIN).getTimeouts()).isZero();
+        assertThat(poolMetrics.snapshot(SidePoolRoutingDataSource.SIDE).getAcquireNanos().getCount())
+                .isGreaterThanOrEqualTo(REQUESTS);
+    }
+}
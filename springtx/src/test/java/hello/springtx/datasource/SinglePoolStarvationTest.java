@@ -0,0 +1,88 @@
+package hello.springtx.datasource;
+
+import hello.springtx.propagation.MemberRepository;
+import hello.springtx.propagation.MemberService;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.CannotCreateTransactionException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * 커넥션 풀 1개 + REQUIRES_NEW
+ * joinV1 이 외부 커넥션을 잡은 채 logRepository(REQUIRES_NEW) 커넥션을 기다림 -> 획득 실패 (교착 상태)
+ * 같은 설정에 side 풀을 추가하면 해결 (SidePoolLoadTest)
+ * */
+@Slf4j
+@SpringBootTest(properties = {
+        "spring.datasource.hikari.maximum-pool-size=1",
+        "spring.datasource.hikari.connection-timeout=500"
+})
+class SinglePoolStarvationTest {
+
+    static final int THREADS = 8;
+    static final int REQUESTS = 16;
+
+    @Autowired MemberService memberService;
+    @Autowired MemberRepository memberRepository;
+    @Autowired ConnectionPoolMetrics poolMetrics;
+
+    @Test
+    void requiresNewStarvation() {
+        // given
+        String username = "singlePool_starvation";
+
+        // When
+        assertThatThrownBy(() -> memberService.joinV1(username))
+                .isInstanceOf(CannotCreateTransactionException.class);
+        poolMetrics.snapshot().forEach(pool -> log.info("pool={}", pool));
+
+        // Then: 외부 트랜잭션 Rollback
+        assertThat(memberRepository.find(username)).isEmpty();
+        assertThat(poolMetrics.snapshot()).anyMatch(pool -> pool.getTimeouts() > 0);
+    }
+
+
+    @Test
+    void concurrentJoinStarvation() throws Exception {
+        // given
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        List<Future<?>> futures = new ArrayList<>();
+        long timeoutsBefore = timeouts();
+
+        // When: SidePoolLoadTest 와 같은 동시 joinV1 호출
+        for (int i = 0; i < REQUESTS; i++) {
+            String username = "singlePool_concurrent_" + i;
+            futures.add(executor.submit(() -> memberService.joinV1(username)));
+        }
+        int failures = 0;
+        for (Future<?> future : futures) {
+            try {
+                future.get();
+            } catch (ExecutionException e) {
+                assertThat(e.getCause()).isInstanceOf(CannotCreateTransactionException.class);
+                failures++;
+            }
+        }
+        executor.shutdown();
+        poolMetrics.snapshot().forEach(pool -> log.info("pool={}", pool));
+
+        // Then: 외부 커넥션을 잡은 호출자끼리 풀을 기다리다 모든 요청이 타임아웃으로 실패
+        assertThat(failures).isEqualTo(REQUESTS);
+        assertThat(memberRepository.find("singlePool_concurrent_0")).isEmpty();
+        assertThat(timeouts() - timeoutsBefore).isGreaterThanOrEqualTo(REQUESTS);
+    }
+
+    private long timeouts() {
+        return poolMetrics.snapshot().stream().mapToLong(ConnectionPoolMetrics.PoolSnapshot::getTimeouts).sum();
+    }
+}
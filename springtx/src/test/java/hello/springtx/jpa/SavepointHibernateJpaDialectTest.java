@@ -0,0 +1,81 @@
+package hello.springtx.jpa;
+
+import hello.springtx.propagation.Member;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.persistence.EntityManager;
+
+import static org.assertj.core.api.Assertions.*;
+
+@SpringBootTest
+class SavepointHibernateJpaDialectTest {
+
+    @Autowired PlatformTransactionManager txManager;
+    @Autowired EntityManager em;
+
+
+    @Test
+    void outerEntityStaysManagedAfterNestedRollback() {
+        // given
+        TransactionTemplate outer = new TransactionTemplate(txManager);
+        TransactionTemplate nested = new TransactionTemplate(txManager);
+        nested.setPropagationBehavior(TransactionDefinition.PROPAGATION_NESTED);
+
+        // When
+        Long[] ids = outer.execute(status -> {
+            Member member = new Member("savepoint_outer");
+            em.persist(member);
+
+            Member inner = nested.execute(nestedStatus -> {
+                Member created = new Member("savepoint_inner");
+                em.persist(created);
+                member.setUsername("savepoint_outer_inner");    // 세이브포인트 이후 변경 -> 롤백 대상
+                nestedStatus.setRollbackOnly();
+                return created;
+            });
+
+            // Then: 외부 엔티티는 세이브포인트 시점 값으로 영속 상태 유지, 내부에서 만든 엔티티는 준영속
+            assertThat(em.contains(member)).isTrue();
+            assertThat(member.getUsername()).isEqualTo("savepoint_outer");
+            assertThat(em.contains(inner)).isFalse();
+
+            // When: 롤백 이후 외부 엔티티 변경
+            member.setUsername("savepoint_outer_changed");
+            return new Long[]{member.getId(), inner.getId()};
+        });
+
+        // Then: 롤백 이후 변경은 커밋, 내부 엔티티는 저장되지 않음
+        assertThat(em.find(Member.class, ids[0]).getUsername()).isEqualTo("savepoint_outer_changed");
+        assertThat(em.find(Member.class, ids[1])).isNull();
+    }
+
+
+    @Test
+    void flushedChangeIsRevertedOnNestedRollback() {
+        // given
+        TransactionTemplate outer = new TransactionTemplate(txManager);
+        TransactionTemplate nested = new TransactionTemplate(txManager);
+        nested.setPropagationBehavior(TransactionDefinition.PROPAGATION_NESTED);
+
+        // When: 세이브포인트 이후 변경을 flush 한 뒤 롤백
+        Long id = outer.execute(status -> {
+            Member member = new Member("savepoint_flushed");
+            em.persist(member);
+            nested.executeWithoutResult(nestedStatus -> {
+                member.setUsername("savepoint_flushed_inner");
+                em.flush();
+                nestedStatus.setRollbackOnly();
+            });
+            assertThat(member.getUsername()).isEqualTo("savepoint_flushed");
+            return member.getId();
+        });
+
+        // Then
+        assertThat(em.find(Member.class, id).getUsername()).isEqualTo("savepoint_flushed");
+    }
+}
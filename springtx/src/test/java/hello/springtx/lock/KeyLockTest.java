@@ -0,0 +1,98 @@
+package hello.springtx.lock;
+
+import hello.springtx.propagation.MemberRepository;
+import hello.springtx.propagation.MemberService;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.*;
+
+@Slf4j
+@SpringBootTest
+class KeyLockTest {
+
+    static final int THREADS = 8;
+
+    @Autowired KeyLockManager keyLockManager;
+    @Autowired MemberService memberService;
+    @Autowired MemberRepository memberRepository;
+
+    @Test
+    void sameKeyIsSerialized() throws Exception {
+        // given
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        List<Future<?>> futures = new ArrayList<>();
+
+        // When
+        for (int i = 0; i < THREADS * 20; i++) {
+            futures.add(executor.submit(() -> keyLockManager.withLock("same-key", () -> {
+                maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+                Thread.onSpinWait();
+                running.decrementAndGet();
+            })));
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        executor.shutdown();
+
+        // Then
+        assertThat(maxRunning.get()).isEqualTo(1);
+        log.info("lock={}", keyLockManager.snapshot());
+    }
+
+    @Test
+    void concurrentJoinWaitsBeforeTransaction() throws Exception {
+        // given
+        long contended = keyLockManager.snapshot().getContended();
+        long timeouts = keyLockManager.snapshot().getTimeouts();
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        List<Future<?>> futures = new ArrayList<>();
+
+        // When: 테스트 스레드가 같은 키를 잡은 동안 같은 username 동시 가입
+        keyLockManager.withLock("username:keyLock_same", () -> {
+            for (int i = 0; i < THREADS; i++) {
+                futures.add(executor.submit(() -> memberService.joinV1("keyLock_same")));
+            }
+            // Then: 모든 호출이 트랜잭션 시작 전에 키 락에서 대기
+            awaitContended(contended + THREADS);
+            assertThat(futures).noneMatch(Future::isDone);
+            assertThat(memberRepository.find("keyLock_same")).isEmpty();
+        });
+        int succeeded = 0;
+        for (Future<?> future : futures) {
+            try {
+                future.get();
+                succeeded++;
+            } catch (ExecutionException e) {
+                log.info("중복 가입 실패 cause={}", e.getCause().toString());
+            }
+        }
+        executor.shutdown();
+
+        // Then: 락 해제 후 하나씩 실행
+        assertThat(succeeded).isEqualTo(1);
+        assertThat(keyLockManager.snapshot().getTimeouts()).isEqualTo(timeouts);
+    }
+
+    private void awaitContended(long expected) {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(3);
+        while (keyLockManager.snapshot().getContended() < expected) {
+            assertThat(System.nanoTime()).as("contended < %d", expected).isLessThan(deadline);
+            Thread.onSpinWait();
+        }
+    }
+}
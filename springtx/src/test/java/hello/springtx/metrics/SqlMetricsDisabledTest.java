@@ -0,0 +1,39 @@
+package hello.springtx.metrics;
+
+import hello.springtx.propagation.MemberService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationContext;
+import org.springframework.transaction.annotation.Propagation;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * SQL 실행 시간 측정을 꺼도 트랜잭션당 SQL 수는 측정
+ */
+@SpringBootTest(properties = "springtx.sql.metrics.enabled=false")
+class SqlMetricsDisabledTest {
+
+    @Autowired MemberService memberService;
+    @Autowired TransactionMetricsRegistry registry;
+    @Autowired ApplicationContext context;
+
+
+    @Test
+    void countsStatementsWithoutSqlMetrics() {
+        // given
+        assertThat(context.getBeansOfType(SqlMetrics.class)).isEmpty();
+
+        // When
+        memberService.joinV1("sql_metrics_disabled");
+
+        // Then: member insert 1건 이상
+        TransactionKey key = new TransactionKey("MemberService.joinV1", Propagation.REQUIRED, true);
+        TransactionStats join = registry.getTransactions().stream()
+                .filter(s -> s.key().equals(key))
+                .findAny()
+                .orElseThrow();
+        assertThat(join.getStatementsMax()).isGreaterThanOrEqualTo(1);
+    }
+}
@@ -0,0 +1,91 @@
+package hello.springtx.metrics;
+
+import hello.springtx.order.Order;
+import hello.springtx.order.OrderService;
+import hello.springtx.propagation.MemberService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static hello.springtx.metrics.SqlStatementAssert.*;
+import static org.assertj.core.api.Assertions.*;
+
+@SpringBootTest
+class SqlMetricsTest {
+
+    @Autowired OrderService orderService;
+    @Autowired MemberService memberService;
+    @Autowired SqlMetrics sqlMetrics;
+    @Autowired TransactionMetricsRegistry transactionMetrics;
+
+
+    @Test
+    void orderStatements() {
+        // given
+        Order order = new Order();
+        order.setUsername("정상");
+
+        // Then: (시퀀스 조회) + insert + update(payStatus)
+        assertStatements(() -> orderService.order(order))
+                .isAtMost(3)
+                .hasCount("insert into orders", 1);
+        assertStatementsOf(transactionMetrics, "OrderService.order").isAtMost(3);
+    }
+
+
+    @Test
+    void joinAllUsesBatch() {
+        // given
+        List<String> usernames = new ArrayList<>();
+        for (int i = 0; i < 120; i++) {
+            usernames.add("sql_batch_" + i);
+        }
+
+        // Then: JDBC Batch (batch_size=50) -> 120명 insert 가 executeBatch 3회
+        assertStatements(() -> memberService.joinAll(usernames))
+                .hasCount("insert into member", 3);
+    }
+
+
+    @Test
+    void report() {
+        // When
+        memberService.joinV1("sql_report");
+
+        // Then
+        assertThat(sqlMetrics.report())
+                .anySatisfy(stats -> {
+                    assertThat(stats.getShape()).startsWith("insert into member");
+                    assertThat(stats.getCount()).isPositive();
+                });
+    }
+
+
+    @Test
+    void slowStatement() {
+        // given: 모든 SQL 을 느린 SQL 로 판단
+        SqlMetrics metrics = new SqlMetrics(Duration.ZERO, 10);
+
+        // When
+        metrics.record("select * from member where id = 1", 1_000);
+        metrics.record("select * from member where id = 2", 2_000);
+
+        // Then: 리터럴을 제외한 같은 shape 로 집계
+        assertThat(metrics.report()).hasSize(1);
+        SqlStats stats = metrics.report().get(0);
+        assertThat(stats.getShape()).isEqualTo("select * from member where id = ?");
+        assertThat(stats.getCount()).isEqualTo(2);
+        assertThat(stats.getSlow()).isEqualTo(2);
+    }
+
+
+    @Test
+    void shape() {
+        assertThat(SqlMetrics.shape("select m1_0.id from member m1_0\n  where m1_0.username in ('a', 'b''c', ?)"))
+                .isEqualTo("select m1_0.id from member m1_0 where m1_0.username in (?...)");
+    }
+}
@@ -0,0 +1,97 @@
+package hello.springtx.metrics;
+
+import org.assertj.core.api.AbstractAssert;
+import org.assertj.core.api.ThrowableAssert.ThrowingCallable;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * 실행한 SQL 수 검증
+ *
+ * assertStatements(() -> orderService.order(order)).isAtMost(3);
+ * assertStatementsOf(registry, "OrderService.order").isAtMost(3);
+ */
+public class SqlStatementAssert extends AbstractAssert<SqlStatementAssert, List<String>> {
+
+    private SqlStatementAssert(List<String> statements) {
+        super(statements, SqlStatementAssert.class);
+    }
+
+    /**
+     * 현재 스레드에서 action 이 실행한 SQL (action 의 예외는 무시 -> 예외 흐름도 검증 가능)
+     */
+    public static SqlStatementAssert assertStatements(ThrowingCallable action) {
+        try (SqlMetrics.Capture capture = SqlMetrics.capture()) {
+            try {
+                action.call();
+            } catch (Throwable ignored) {
+                // 예외 발생 여부는 호출하는 테스트에서 검증
+            }
+            return new SqlStatementAssert(capture.getStatements());
+        }
+    }
+
+    /**
+     * 지금까지 기록된 해당 메서드 트랜잭션 중 SQL 을 가장 많이 실행한 트랜잭션 기준
+     */
+    public static MaxStatementAssert assertStatementsOf(TransactionMetricsRegistry registry, String method) {
+        long max = registry.find(method).stream()
+                .mapToLong(TransactionStats::getStatementsMax)
+                .max()
+                .orElse(0);
+        return new MaxStatementAssert(method, max);
+    }
+
+    public SqlStatementAssert isAtMost(int max) {
+        isNotNull();
+        if (actual.size() > max) {
+            failWithMessage("Expected at most <%d> statements but was <%d>:%n%s", max, actual.size(), render());
+        }
+        return this;
+    }
+
+    public SqlStatementAssert hasCount(int count) {
+        isNotNull();
+        if (actual.size() != count) {
+            failWithMessage("Expected <%d> statements but was <%d>:%n%s", count, actual.size(), render());
+        }
+        return this;
+    }
+
+    /**
+     * SQL shape 가 prefix 로 시작하는 SQL 수 (대소문자 무시, N+1 검증용)
+     */
+    public SqlStatementAssert hasCount(String prefix, int count) {
+        isNotNull();
+        String lower = prefix.toLowerCase();
+        long matched = actual.stream().filter(sql -> sql.toLowerCase().startsWith(lower)).count();
+        if (matched != count) {
+            failWithMessage("Expected <%d> statements starting with <%s> but was <%d>:%n%s", count, prefix, matched, render());
+        }
+        return this;
+    }
+
+    private String render() {
+        return actual.stream().map(sql -> "  " + sql).collect(Collectors.joining(System.lineSeparator()));
+    }
+
+
+    public static class MaxStatementAssert extends AbstractAssert<MaxStatementAssert, Long> {
+
+        private final String method;
+
+        MaxStatementAssert(String method, long max) {
+            super(max, MaxStatementAssert.class);
+            this.method = method;
+        }
+
+        public MaxStatementAssert isAtMost(long max) {
+            isNotNull();
+            if (actual > max) {
+                failWithMessage("Expected %s to issue at most <%d> statements but was <%d>", method, max, actual);
+            }
+            return this;
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package hello.springtx.metrics;
+
+import hello.springtx.propagation.MemberService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.orm.jpa.JpaTransactionManager;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.support.ResourceTransactionManager;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import javax.persistence.EntityManagerFactory;
+import java.lang.management.ManagementFactory;
+
+import static org.assertj.core.api.Assertions.*;
+
+@SpringBootTest
+class TransactionMetricsTest {
+
+    @Autowired MemberService memberService;
+    @Autowired TransactionMetricsRegistry registry;
+    @Autowired PlatformTransactionManager txManager;
+    @Autowired EntityManagerFactory entityManagerFactory;
+
+
+    @Test
+    void commitAndRollbackByMethod() {
+        // given
+        TransactionStats joinBefore = stats("MemberService.joinV1", Propagation.REQUIRED, true);
+        TransactionStats saveBefore = stats("MemberRepository.save", Propagation.REQUIRED, false);
+        TransactionStats logBefore = stats("LogRepository.save", Propagation.REQUIRES_NEW, true);
+
+        // When
+        memberService.joinV1("metrics_commit");
+        assertThatThrownBy(() -> memberService.joinV1("로그예외_metrics_rollback"))
+                .isInstanceOf(RuntimeException.class);
+
+        // Then: joinV1 (물리) 커밋 1, 롤백 1
+        TransactionStats join = stats("MemberService.joinV1", Propagation.REQUIRED, true);
+        assertThat(join.getBegins() - joinBefore.getBegins()).isEqualTo(2);
+        assertThat(join.getCommits() - joinBefore.getCommits()).isEqualTo(1);
+        assertThat(join.getRollbacks() - joinBefore.getRollbacks()).isEqualTo(1);
+        assertThat(join.duration().getCount()).isGreaterThanOrEqualTo(2);
+
+        // Then: MemberRepository.save 는 joinV1 트랜잭션에 참여
+        TransactionStats save = stats("MemberRepository.save", Propagation.REQUIRED, false);
+        assertThat(save.getCommits() - saveBefore.getCommits()).isEqualTo(2);
+
+        // Then: LogRepository.save 는 REQUIRES_NEW 물리 트랜잭션, 커밋 1, 롤백 1
+        TransactionStats log = stats("LogRepository.save", Propagation.REQUIRES_NEW, true);
+        assertThat(log.getCommits() - logBefore.getCommits()).isEqualTo(1);
+        assertThat(log.getRollbacks() - logBefore.getRollbacks()).isEqualTo(1);
+        assertThat(registry.getActiveTransactions()).isZero();
+    }
+
+
+    @Test
+    void keepsResourceTransactionManagerContract() {
+        // Then: 감싼 매니저도 ResourceTransactionManager, 리소스 키는 EntityManagerFactory
+        assertThat(txManager).isInstanceOf(ObservedTransactionManager.class)
+                .isInstanceOf(ResourceTransactionManager.class);
+        assertThat(((ResourceTransactionManager) txManager).getResourceFactory()).isSameAs(entityManagerFactory);
+        assertThat(((ObservedTransactionManager) txManager).getDelegate()).isInstanceOf(JpaTransactionManager.class);
+    }
+
+
+    @Test
+    void jmx() throws Exception {
+        // When
+        memberService.joinV1("metrics_jmx");
+
+        // Then
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        ObjectName name = new ObjectName(TransactionMetricsJmxExporter.OBJECT_NAME);
+        assertThat(server.isRegistered(name)).isTrue();
+        assertThat((Object[]) server.getAttribute(name, "Transactions")).isNotEmpty();
+    }
+
+
+    private TransactionStats stats(String name, Propagation propagation, boolean physical) {
+        TransactionKey key = new TransactionKey(name, propagation, physical);
+        return registry.getTransactions().stream()
+                .filter(s -> s.key().equals(key))
+                .findAny()
+                .orElse(new TransactionStats(key, 0, 0, 0,
+                        new Histogram().snapshot(), new Histogram().snapshot(), new Histogram().snapshot()));
+    }
+}
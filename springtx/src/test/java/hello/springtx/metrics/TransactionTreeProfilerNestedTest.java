@@ -0,0 +1,55 @@
+package hello.springtx.metrics;
+
+import hello.springtx.propagation.MemberService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Propagation;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * springtx.log.mode=NESTED
+ * 세이브포인트 롤백은 외부 트랜잭션을 rollbackOnly 로 만들지 않음
+ */
+@SpringBootTest(properties = "springtx.log.mode=NESTED")
+class TransactionTreeProfilerNestedTest {
+
+    @Autowired MemberService memberService;
+    @Autowired TransactionTreeProfiler profiler;
+
+
+    @Test
+    void nestedRollbackDoesNotMarkOuterRollbackOnly() {
+        // When: 로그 저장 실패 -> 세이브포인트까지 롤백, member 는 커밋
+        memberService.joinV2("로그예외_profiler_nested");
+
+        // Then: joinV2(물리) -> MemberRepository.save(참여), LogRepository.saveNested(세이브포인트)
+        TransactionTree tree = latest();
+        TransactionTreeNode root = tree.getRoot();
+        assertThat(tree.isRolledBack()).isFalse();
+        assertThat(root.getObservation().getName()).isEqualTo("MemberService.joinV2");
+        assertThat(root.getObservation().isCommitted()).isTrue();
+        assertThat(root.getObservation().isRollbackOnly()).isFalse();
+
+        TransactionTreeNode logSave = root.getChildren().stream()
+                .filter(child -> child.getObservation().getName().equals("LogRepository.saveNested"))
+                .findFirst()
+                .orElseThrow();
+        assertThat(logSave.getObservation().getPropagation()).isEqualTo(Propagation.NESTED);
+        assertThat(logSave.getObservation().isSavepoint()).isTrue();
+        assertThat(logSave.getObservation().isCommitted()).isFalse();
+        assertThat(logSave.isMarkedRollbackOnly()).isFalse();
+        assertThat(tree.render()).contains("LogRepository.saveNested NESTED savepoint ROLLBACK")
+                .doesNotContain("외부 트랜잭션 rollbackOnly");
+    }
+
+
+    private TransactionTree latest() {
+        String thread = Thread.currentThread().getName();
+        return profiler.recent().stream()
+                .filter(tree -> tree.getThreadName().equals(thread))
+                .findFirst()
+                .orElseThrow();
+    }
+}
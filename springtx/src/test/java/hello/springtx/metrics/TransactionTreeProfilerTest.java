@@ -0,0 +1,104 @@
+package hello.springtx.metrics;
+
+import hello.springtx.propagation.MemberService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.UnexpectedRollbackException;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.support.DefaultTransactionDefinition;
+
+import static org.assertj.core.api.Assertions.*;
+
+@SpringBootTest
+class TransactionTreeProfilerTest {
+
+    @Autowired MemberService memberService;
+    @Autowired PlatformTransactionManager txManager;
+    @Autowired TransactionTreeProfiler profiler;
+
+
+    @Test
+    void requiresNewTree() {
+        // When
+        assertThatThrownBy(() -> memberService.joinV1("로그예외_profiler"))
+                .isInstanceOf(RuntimeException.class);
+
+        // Then: joinV1(물리) -> MemberRepository.save(참여), LogRepository.save(REQUIRES_NEW 물리)
+        TransactionTree tree = latest();
+        TransactionTreeNode root = tree.getRoot();
+        assertThat(tree.isRolledBack()).isTrue();
+        assertThat(root.getObservation().getName()).isEqualTo("MemberService.joinV1");
+        assertThat(root.getObservation().isNewTransaction()).isTrue();
+        assertThat(root.getChildren()).hasSize(2);
+
+        TransactionTreeNode memberSave = root.getChildren().get(0);
+        assertThat(memberSave.getObservation().getName()).isEqualTo("MemberRepository.save");
+        assertThat(memberSave.getObservation().isNewTransaction()).isFalse();
+
+        TransactionTreeNode logSave = root.getChildren().get(1);
+        assertThat(logSave.getObservation().getName()).isEqualTo("LogRepository.save");
+        assertThat(logSave.getObservation().getPropagation()).isEqualTo(Propagation.REQUIRES_NEW);
+        assertThat(logSave.getObservation().isNewTransaction()).isTrue();
+        assertThat(logSave.getObservation().isCommitted()).isFalse();
+
+        // Then: 외부 + REQUIRES_NEW 커넥션 2개, log insert 1건 (외부는 롤백이라 member insert 없음)
+        assertThat(root.getConnections()).isEqualTo(2);
+        assertThat(logSave.getStatements()).isGreaterThanOrEqualTo(1);
+    }
+
+
+    @Test
+    void innerRollbackMarksOuterRollbackOnly() {
+        // given
+        DefaultTransactionDefinition outerDefinition = new DefaultTransactionDefinition();
+        outerDefinition.setName("Profiler.outer");
+        DefaultTransactionDefinition innerDefinition = new DefaultTransactionDefinition();
+        innerDefinition.setName("Profiler.inner");
+
+        // When: 내부 트랜잭션 롤백 -> 외부 커밋 시 UnexpectedRollbackException
+        TransactionStatus outer = txManager.getTransaction(outerDefinition);
+        TransactionStatus inner = txManager.getTransaction(innerDefinition);
+        txManager.rollback(inner);
+        assertThatThrownBy(() -> txManager.commit(outer))
+                .isInstanceOf(UnexpectedRollbackException.class);
+
+        // Then
+        TransactionTree tree = latest();
+        TransactionTreeNode root = tree.getRoot();
+        assertThat(root.getObservation().getName()).isEqualTo("Profiler.outer");
+        assertThat(root.getObservation().isRollbackOnly()).isTrue();
+        assertThat(root.getObservation().getFailure()).isInstanceOf(UnexpectedRollbackException.class);
+        assertThat(root.getChildren().get(0).isMarkedRollbackOnly()).isTrue();
+        assertThat(tree.render()).contains("Profiler.inner REQUIRED participating ROLLBACK -> 외부 트랜잭션 rollbackOnly");
+    }
+
+
+    @Test
+    void supportsWithoutTransactionDoesNotMarkRollbackOnly() {
+        // given
+        DefaultTransactionDefinition definition = new DefaultTransactionDefinition(Propagation.SUPPORTS.value());
+        definition.setName("Profiler.supports");
+
+        // When: 트랜잭션 없이 SUPPORTS 범위를 롤백
+        txManager.rollback(txManager.getTransaction(definition));
+
+        // Then: 실제 트랜잭션이 없으므로 외부 rollbackOnly 표시 없음
+        TransactionTreeNode root = latest().getRoot();
+        assertThat(root.getObservation().isTransactional()).isFalse();
+        assertThat(root.isMarkedRollbackOnly()).isFalse();
+        assertThat(latest().render()).contains("Profiler.supports SUPPORTS non-transactional ROLLBACK")
+                .doesNotContain("외부 트랜잭션 rollbackOnly");
+    }
+
+
+    private TransactionTree latest() {
+        String thread = Thread.currentThread().getName();
+        return profiler.recent().stream()
+                .filter(tree -> tree.getThreadName().equals(thread))
+                .findFirst()
+                .orElseThrow();
+    }
+}
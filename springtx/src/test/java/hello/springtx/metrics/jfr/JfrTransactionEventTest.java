@@ -0,0 +1,88 @@
+package hello.springtx.metrics.jfr;
+
+import hello.springtx.propagation.MemberService;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.*;
+
+@SpringBootTest
+class JfrTransactionEventTest {
+
+    @Autowired MemberService memberService;
+
+
+    @Test
+    void transactionEvents() throws Exception {
+        // given
+        Path file = Files.createTempFile("springtx", ".jfr");
+        List<RecordedEvent> events;
+
+        // When: joinV1 커밋 1회 + 롤백 1회 (LogRepository.save 는 REQUIRES_NEW)
+        try (Recording recording = new Recording()) {
+            recording.enable(TransactionBeginEvent.class);
+            recording.enable(TransactionCommitEvent.class);
+            recording.enable(TransactionRollbackEvent.class);
+            recording.enable(TransactionSuspendEvent.class);
+            recording.enable(ConnectionCheckoutEvent.class);
+            recording.start();
+
+            memberService.joinV1("jfr_commit");
+            assertThatThrownBy(() -> memberService.joinV1("로그예외_jfr_rollback"))
+                    .isInstanceOf(RuntimeException.class);
+
+            recording.stop();
+            recording.dump(file);
+            events = RecordingFile.readAllEvents(file);
+        } finally {
+            Files.deleteIfExists(file);
+        }
+
+        // Then: 시작
+        List<RecordedEvent> begins = events(events, "hello.springtx.TransactionBegin", "MemberService.joinV1");
+        assertThat(begins).hasSize(2);
+        assertThat(begins.get(0).getString("propagation")).isEqualTo("REQUIRED");
+        assertThat(begins.get(0).getString("isolation")).isEqualTo("DEFAULT");
+        assertThat(begins.get(0).getBoolean("physical")).isTrue();
+
+        // Then: 커밋 1, 롤백 1
+        List<RecordedEvent> commits = events(events, "hello.springtx.TransactionCommit", "MemberService.joinV1");
+        assertThat(commits).hasSize(1);
+        assertThat(commits.get(0).getDuration("transactionDuration")).isPositive();
+
+        List<RecordedEvent> rollbacks = events(events, "hello.springtx.TransactionRollback", "MemberService.joinV1");
+        assertThat(rollbacks).hasSize(1);
+        assertThat(rollbacks.get(0).getBoolean("rollbackOnly")).isFalse();
+
+        // Then: REQUIRES_NEW 가 joinV1 트랜잭션을 보류 (2회)
+        List<RecordedEvent> suspends = events(events, "hello.springtx.TransactionSuspend", "LogRepository.save");
+        assertThat(suspends).hasSize(2);
+        assertThat(suspends.get(0).getString("propagation")).isEqualTo("REQUIRES_NEW");
+        assertThat(suspends.get(0).getDuration()).isPositive();
+
+        // Then: 커넥션 획득 (joinV1 2회 + REQUIRES_NEW 2회 이상)
+        List<RecordedEvent> checkouts = events.stream()
+                .filter(e -> e.getEventType().getName().equals("hello.springtx.ConnectionCheckout"))
+                .collect(Collectors.toList());
+        assertThat(checkouts).hasSizeGreaterThanOrEqualTo(4);
+        assertThat(checkouts.get(0).getString("pool")).isNotBlank();
+        assertThat(checkouts.get(0).getDuration("acquireTime")).isNotNegative();
+    }
+
+
+    private static List<RecordedEvent> events(List<RecordedEvent> events, String type, String method) {
+        return events.stream()
+                .filter(e -> e.getEventType().getName().equals(type))
+                .filter(e -> method.equals(e.getString("method")))
+                .collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,76 @@
+package hello.springtx.order;
+
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import static hello.springtx.metrics.SqlStatementAssert.assertStatements;
+import static org.assertj.core.api.Assertions.*;
+
+@Slf4j
+@SpringBootTest
+class IdempotentOrderServiceTest {
+
+    @Autowired IdempotentOrderService idempotentOrderService;
+    @Autowired OrderRepository orderRepository;
+    @Autowired IdempotencyCache idempotencyCache;
+
+    @Test
+    void duplicateReturnsStoredResult() {
+        // given
+        OrderReceipt first = idempotentOrderService.submit("idem-1", newOrder("잔고부족"));
+
+        // When: 재시도 (새 Order 객체, 같은 키)
+        OrderReceipt[] retry = new OrderReceipt[1];
+        assertStatements(() -> retry[0] = idempotentOrderService.submit("idem-1", newOrder("잔고부족")))
+                .hasCount(0);   // 캐시 적중 : SQL, 트랜잭션 없음
+
+        // Then
+        assertThat(first.isReplayed()).isFalse();
+        assertThat(first.getResult()).isEqualTo(OrderResult.WAIT);
+        assertThat(retry[0].isReplayed()).isTrue();
+        assertThat(retry[0].getOrderId()).isEqualTo(first.getOrderId());
+        assertThat(retry[0].getResult()).isEqualTo(OrderResult.WAIT);
+        assertThat(idempotencyCache.stats().getHits()).isPositive();
+    }
+
+    @Test
+    void cacheMissFallsBackToDatabase() {
+        // given: 캐시를 거치지 않고 저장된 주문 (다른 인스턴스가 처리한 경우)
+        Order stored = newOrder("정상");
+        stored.setPayStatus(PayStatus.COMPLETE);
+        stored.setIdempotencyKey("idem-2");
+        orderRepository.save(stored);
+
+        // When
+        OrderReceipt receipt = idempotentOrderService.submit("idem-2", newOrder("정상"));
+
+        // Then: 새 주문 없이 저장된 결과 반환
+        assertThat(receipt.isReplayed()).isTrue();
+        assertThat(receipt.getOrderId()).isEqualTo(stored.getId());
+        assertThat(receipt.getResult()).isEqualTo(OrderResult.COMPLETE);
+    }
+
+    @Test
+    void failedOrderCanBeRetried() {
+        // given: 시스템 예외 -> 롤백, 기록 없음
+        OrderReceipt failed = idempotentOrderService.submit("idem-3", newOrder("예외"));
+        assertThat(failed.getResult()).isEqualTo(OrderResult.FAIL);
+        assertThat(failed.getOrderId()).isNull();
+
+        // When
+        OrderReceipt retry = idempotentOrderService.submit("idem-3", newOrder("정상"));
+
+        // Then
+        assertThat(retry.isReplayed()).isFalse();
+        assertThat(retry.getResult()).isEqualTo(OrderResult.COMPLETE);
+        assertThat(orderRepository.findByIdempotencyKey("idem-3")).isPresent();
+    }
+
+    private Order newOrder(String username) {
+        Order order = new Order();
+        order.setUsername(username);
+        return order;
+    }
+}
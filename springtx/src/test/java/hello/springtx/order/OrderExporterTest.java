@@ -0,0 +1,60 @@
+package hello.springtx.order;
+
+import hello.springtx.order.OrderExporter.ExportReport;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * 버퍼 64바이트 -> 여러 번 나누어 write 되는 경로 포함
+ */
+@Slf4j
+@SpringBootTest(properties = "springtx.order.export.buffer-size=64B")
+class OrderExporterTest {
+
+    @Autowired OrderExporter orderExporter;
+    @Autowired OrderRepository orderRepository;
+
+    @TempDir Path tempDir;
+
+    @Test
+    void exportCsv() throws Exception {
+        // given
+        Order complete = newOrder("정상", PayStatus.COMPLETE, null);
+        Order quoted = newOrder("잔고, \"부족\"", PayStatus.WAIT, "export-key");
+        orderRepository.save(complete);
+        orderRepository.save(quoted);
+        Path file = tempDir.resolve("orders.csv");
+
+        // When
+        ExportReport report = orderExporter.exportCsv(file);
+        log.info("report={}", report);
+
+        // Then
+        List<String> lines = Files.readAllLines(file, StandardCharsets.UTF_8);
+        assertThat(lines.get(0)).isEqualTo(OrderExporter.HEADER);
+        assertThat(lines).hasSize((int) report.getRows() + 1);
+        assertThat(report.getRows()).isEqualTo(orderRepository.count());
+        assertThat(report.getBytes()).isEqualTo(Files.size(file));
+        assertThat(lines).contains(
+                complete.getId() + ",정상,2,0,",
+                quoted.getId() + ",\"잔고, \"\"부족\"\"\",1,0,export-key");
+    }
+
+    private Order newOrder(String username, PayStatus payStatus, String idempotencyKey) {
+        Order order = new Order();
+        order.setUsername(username);
+        order.setPayStatus(payStatus);
+        order.setIdempotencyKey(idempotencyKey);
+        return order;
+    }
+}
@@ -5,7 +5,12 @@ import org.assertj.core.api.Assertions;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.util.List;
 import java.util.Optional;
 
 import static org.assertj.core.api.Assertions.*;
@@ -16,6 +21,8 @@ class OrderServiceTest {
 
     @Autowired OrderService orderService;
     @Autowired OrderRepository orderRepository;
+    @Autowired PlatformTransactionManager txManager;
+    @Autowired JdbcTemplate jdbcTemplate;
 
 
     @Test
@@ -27,7 +34,7 @@ class OrderServiceTest {
         orderService.order(order);
         // Then
         Order findOrder = orderRepository.findById(order.getId()).get();
-        assertThat(findOrder.getPayStatus()).isEqualTo("완료");
+        assertThat(findOrder.getPayStatus()).isEqualTo(PayStatus.COMPLETE);
     }
 
 
@@ -58,6 +65,141 @@ class OrderServiceTest {
         }
         // Then
         Order findOrder = orderRepository.findById(order.getId()).get();
-        assertThat(findOrder.getPayStatus()).isEqualTo("대기");
+        assertThat(findOrder.getPayStatus()).isEqualTo(PayStatus.WAIT);
     }
-}
\ No newline at end of file
+
+
+    @Test
+    void orderAll() {
+        // Given
+        List<Order> orders = List.of(newOrder("정상"), newOrder("예외"), newOrder("잔고부족"), newOrder("정상"));
+        // When
+        OrderResult[] results = orderService.orderAll(orders);
+        // Then: 예외 주문만 롤백, 나머지는 같은 트랜잭션으로 커밋
+        assertThat(results).containsExactly(
+                OrderResult.COMPLETE, OrderResult.FAIL, OrderResult.WAIT, OrderResult.COMPLETE);
+        assertThat(orderRepository.findById(orders.get(0).getId()).get().getPayStatus()).isEqualTo(PayStatus.COMPLETE);
+        assertThat(orderRepository.findById(orders.get(1).getId())).isEmpty();
+        assertThat(orderRepository.findById(orders.get(2).getId()).get().getPayStatus()).isEqualTo(PayStatus.WAIT);
+        assertThat(orderRepository.findById(orders.get(3).getId()).get().getPayStatus()).isEqualTo(PayStatus.COMPLETE);
+    }
+
+    @Test
+    void orderAllInsideOuterTransaction() {
+        // Given
+        List<Order> orders = List.of(newOrder("정상"), newOrder("예외"));
+        // When: 외부 트랜잭션 안에서 호출 후 외부 트랜잭션 롤백
+        OrderResult[] results = new TransactionTemplate(txManager).execute(status -> {
+            status.setRollbackOnly();
+            return orderService.orderAll(orders);
+        });
+        // Then: 청크는 REQUIRES_NEW 로 이미 커밋, 외부 롤백과 무관
+        assertThat(results).containsExactly(OrderResult.COMPLETE, OrderResult.FAIL);
+        assertThat(orderRepository.findById(orders.get(0).getId()).get().getPayStatus()).isEqualTo(PayStatus.COMPLETE);
+    }
+
+    @Test
+    void orderAllRetriesChunkAfterRollbackOnly() {
+        // Given: 이미 저장된 멱등성 키 -> 유니크 제약 위반 -> 청크 트랜잭션 전체 rollbackOnly
+        String key = "retry-" + System.nanoTime();
+        orderRepository.save(newOrder("정상", key + "-duplicate"));
+        List<Order> orders = List.of(newOrder("정상", key + "-0"), newOrder("정상", key + "-duplicate"),
+                newOrder("잔고부족", key + "-2"));
+        // When
+        OrderResult[] results = orderService.orderAll(orders);
+        // Then: 실패한 주문을 빼고 청크 재실행, 주문마다 1건만 저장
+        assertThat(results).containsExactly(OrderResult.COMPLETE, OrderResult.FAIL, OrderResult.WAIT);
+        assertThat(countByKey(key + "-0")).isEqualTo(1);
+        assertThat(countByKey(key + "-duplicate")).isEqualTo(1);
+        assertThat(countByKey(key + "-2")).isEqualTo(1);
+        assertThat(orderRepository.findById(orders.get(0).getId()).get().getPayStatus()).isEqualTo(PayStatus.COMPLETE);
+        assertThat(orderRepository.findById(orders.get(2).getId()).get().getPayStatus()).isEqualTo(PayStatus.WAIT);
+    }
+
+    @Test
+    void orderAllFailureInSecondChunk() {
+        // Given: 청크 2건, 두 번째 청크에서 유니크 제약 위반
+        OrderService chunkOfTwo = new OrderService(orderRepository, txManager, 2);
+        String key = "chunk-" + System.nanoTime();
+        orderRepository.save(newOrder("정상", key + "-duplicate"));
+        List<Order> orders = List.of(newOrder("정상", key + "-0"), newOrder("잔고부족", key + "-1"),
+                newOrder("정상", key + "-2"), newOrder("정상", key + "-duplicate"),
+                newOrder("정상", key + "-4"));
+        // When
+        OrderResult[] results = chunkOfTwo.orderAll(orders);
+        // Then: 첫 청크는 그대로 커밋, 두 번째 청크만 재실행, 세 번째 청크는 계속 처리
+        assertThat(results).containsExactly(OrderResult.COMPLETE, OrderResult.WAIT,
+                OrderResult.COMPLETE, OrderResult.FAIL, OrderResult.COMPLETE);
+        assertThat(countByKey(key + "-0")).isEqualTo(1);
+        assertThat(countByKey(key + "-1")).isEqualTo(1);
+        assertThat(countByKey(key + "-2")).isEqualTo(1);
+        assertThat(countByKey(key + "-duplicate")).isEqualTo(1);
+        assertThat(countByKey(key + "-4")).isEqualTo(1);
+    }
+
+    @Test
+    void orderAllRetryInsideOuterTransaction() {
+        // Given
+        String key = "outer-" + System.nanoTime();
+        orderRepository.save(newOrder("정상", key + "-duplicate"));
+        List<Order> orders = List.of(newOrder("정상", key + "-0"), newOrder("정상", key + "-duplicate"));
+        // When: 외부 트랜잭션 안에서 청크 재실행 후 외부 트랜잭션 롤백
+        OrderResult[] results = new TransactionTemplate(txManager).execute(status -> {
+            status.setRollbackOnly();
+            return orderService.orderAll(orders);
+        });
+        // Then: 재실행한 청크는 REQUIRES_NEW 로 커밋, 1건만 저장
+        assertThat(results).containsExactly(OrderResult.COMPLETE, OrderResult.FAIL);
+        assertThat(countByKey(key + "-0")).isEqualTo(1);
+        assertThat(orderRepository.findById(orders.get(0).getId()).get().getPayStatus()).isEqualTo(PayStatus.COMPLETE);
+    }
+
+    @Test
+    void orderV2() {
+        // Given
+        Order complete = newOrder("정상");
+        Order fail = newOrder("예외");
+        Order wait = newOrder("잔고부족");
+        // When: 예외 없이 결과 반환
+        OrderResult completeResult = orderService.orderV2(complete);
+        OrderResult failResult = orderService.orderV2(fail);
+        OrderResult waitResult = orderService.orderV2(wait);
+        // Then: order 와 같은 커밋/롤백 결과
+        assertThat(completeResult).isEqualTo(OrderResult.COMPLETE);
+        assertThat(orderRepository.findById(complete.getId()).get().getPayStatus()).isEqualTo(PayStatus.COMPLETE);
+        assertThat(failResult).isEqualTo(OrderResult.FAIL);
+        assertThat(orderRepository.findById(fail.getId())).isEmpty();
+        assertThat(waitResult).isEqualTo(OrderResult.WAIT);
+        assertThat(orderRepository.findById(wait.getId()).get().getPayStatus()).isEqualTo(PayStatus.WAIT);
+    }
+
+    @Test
+    void findPending() {
+        // Given
+        OrderResult[] results = orderService.orderAll(List.of(newOrder("잔고부족"), newOrder("정상"), newOrder("잔고부족")));
+        assertThat(results).containsExactly(OrderResult.WAIT, OrderResult.COMPLETE, OrderResult.WAIT);
+        // When: 키셋 페이지 (id 이후 대기 주문)
+        List<Order> pending = orderRepository.findByPayStatusAndIdGreaterThanOrderByIdAsc(
+                PayStatus.WAIT, 0L, PageRequest.of(0, 1000));
+        // Then
+        assertThat(pending).isNotEmpty().allMatch(order -> order.getPayStatus() == PayStatus.WAIT);
+        assertThat(pending).extracting(Order::getUsername).containsOnly("잔고부족");
+    }
+
+    private Order newOrder(String username) {
+        Order order = new Order();
+        order.setUsername(username);
+        return order;
+    }
+
+    private Order newOrder(String username, String idempotencyKey) {
+        Order order = newOrder(username);
+        order.setIdempotencyKey(idempotencyKey);
+        return order;
+    }
+
+    private long countByKey(String idempotencyKey) {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM orders WHERE idempotency_key = ?",
+                Long.class, idempotencyKey);
+    }
+}
@@ -0,0 +1,60 @@
+package hello.springtx.order;
+
+import hello.springtx.order.PendingOrderReconciler.ReconcileReport;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * 청크 3건, 작업자 2개 -> 대기 주문 10건이 4개 청크로 나뉘어 처리
+ * 정상 : 완료로 변경, 잔고부족 : 대기 유지
+ */
+@Slf4j
+@SpringBootTest(properties = {
+        "springtx.order.reconcile.enabled=true",
+        "springtx.order.reconcile.chunk-size=3",
+        "springtx.order.reconcile.parallelism=2",
+        "springtx.order.reconcile.interval=1h"
+})
+class PendingOrderReconcilerTest {
+
+    @Autowired PendingOrderReconciler reconciler;
+    @Autowired OrderRepository orderRepository;
+
+    @Test
+    void reconcile() {
+        // given: 잔고 충전된 대기 주문 8건 + 여전히 잔고부족 2건
+        List<Order> orders = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            Order order = new Order();
+            order.setUsername(i < 8 ? "정상" : "잔고부족");
+            order.setPayStatus(PayStatus.WAIT);
+            orders.add(orderRepository.save(order));
+        }
+
+        // When
+        ReconcileReport report = reconciler.reconcile();
+        log.info("report={}", report);
+
+        // Then
+        assertThat(report.getScanned()).isGreaterThanOrEqualTo(10);
+        assertThat(report.getCompleted()).isGreaterThanOrEqualTo(8);
+        assertThat(report.getFailed()).isZero();
+        for (int i = 0; i < 10; i++) {
+            PayStatus expected = i < 8 ? PayStatus.COMPLETE : PayStatus.WAIT;
+            assertThat(orderRepository.findById(orders.get(i).getId()).get().getPayStatus()).isEqualTo(expected);
+        }
+
+        // When: 다시 실행하면 대기 주문(잔고부족)만 조회
+        ReconcileReport second = reconciler.reconcile();
+
+        // Then
+        assertThat(second.getCompleted()).isZero();
+    }
+}
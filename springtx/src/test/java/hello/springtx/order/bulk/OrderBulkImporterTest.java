@@ -0,0 +1,109 @@
+package hello.springtx.order.bulk;
+
+import hello.springtx.order.Order;
+import hello.springtx.order.OrderRepository;
+import hello.springtx.order.PayStatus;
+import hello.springtx.order.bulk.OrderBulkImporter.ImportReport;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * 청크 10건, 작업자 2개, 큐 2청크
+ */
+@Slf4j
+@SpringBootTest(properties = {
+        "springtx.order.import.chunk-size=10",
+        "springtx.order.import.writers=2",
+        "springtx.order.import.queue-capacity=2"
+})
+class OrderBulkImporterTest {
+
+    @Autowired OrderBulkImporter importer;
+    @Autowired OrderRepository orderRepository;
+    @Autowired JdbcTemplate jdbcTemplate;
+
+    @TempDir Path tempDir;
+
+    @Test
+    void importCsv() throws Exception {
+        // given
+        Path file = writeCsv("bulk_a", 25, -1);
+
+        // When
+        ImportReport report = importer.importCsv(file, "import-a");
+        log.info("report={}", report);
+
+        // Then
+        assertThat(report.getRows()).isEqualTo(25);
+        assertThat(report.getChunks()).isEqualTo(3);
+        assertThat(count("bulk_a%")).isEqualTo(25);
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT count(*) FROM orders WHERE username LIKE 'bulk_a%' AND pay_status = 1", Long.class))
+                .isEqualTo(13);
+
+        // Then: Hibernate 생성기와 ID 가 겹치지 않음 (같은 시퀀스, pooled-lo)
+        Order order = new Order();
+        order.setUsername("bulk_after");
+        order.setPayStatus(PayStatus.COMPLETE);
+        orderRepository.save(order);
+        assertThat(count("bulk_after")).isEqualTo(1);
+    }
+
+    @Test
+    void resumeFromCommittedChunks() throws Exception {
+        // given: 23번째 행(청크 2)의 결제 상태가 잘못된 파일 -> 청크 0, 1 만 커밋
+        Path broken = writeCsv("bulk_b", 25, 22);
+        assertThatThrownBy(() -> importer.importCsv(broken, "import-b"))
+                .isInstanceOf(IllegalStateException.class);
+        assertThat(count("bulk_b%")).isEqualTo(20);
+
+        // When: 파일 수정 후 같은 importId 로 다시 실행
+        Path fixed = writeCsv("bulk_b", 25, -1);
+        ImportReport report = importer.importCsv(fixed, "import-b");
+        log.info("report={}", report);
+
+        // Then: 커밋된 청크는 건너뛰고 나머지만 등록
+        assertThat(report.getSkippedChunks()).isEqualTo(2);
+        assertThat(report.getRows()).isEqualTo(5);
+        assertThat(count("bulk_b%")).isEqualTo(25);
+    }
+
+    @Test
+    void unknownPayStatusCodeReportsRecord() throws Exception {
+        // given: 2번째 행의 결제 상태 코드가 없는 값
+        Path file = tempDir.resolve("bulk_c.csv");
+        Files.writeString(file, "username,payStatus\nbulk_c_0,1\nbulk_c_1,9\n", StandardCharsets.UTF_8);
+
+        // When, Then: 다른 파싱 오류와 같이 행 번호 포함
+        assertThatThrownBy(() -> importer.importCsv(file, "import-c"))
+                .isInstanceOf(IllegalStateException.class)
+                .getCause()
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("unknown pay status code 9. record=1");
+    }
+
+    private Path writeCsv(String prefix, int rows, int brokenRow) throws Exception {
+        StringBuilder csv = new StringBuilder("username,payStatus\n");
+        for (int i = 0; i < rows; i++) {
+            String payStatus = i == brokenRow ? "보류" : i % 2 == 0 ? "대기" : "2";
+            csv.append(prefix).append('_').append(i).append(',').append(payStatus).append('\n');
+        }
+        Path file = tempDir.resolve(prefix + ".csv");
+        Files.writeString(file, csv, StandardCharsets.UTF_8);
+        return file;
+    }
+
+    private long count(String usernamePattern) {
+        return jdbcTemplate.queryForObject("SELECT count(*) FROM orders WHERE username LIKE ?", Long.class, usernamePattern);
+    }
+}
@@ -0,0 +1,54 @@
+package hello.springtx.propagation;
+
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * springtx.log.mode=OUTBOX, max-pending=1
+ * 아웃박스가 가득 차면 트랜잭션 안의 append 는 max-wait 를 기다리지 않고 바로 실패
+ * */
+@Slf4j
+@SpringBootTest(properties = {
+        "springtx.log.mode=OUTBOX",
+        "springtx.log.outbox.flush-interval=1h",
+        "springtx.log.outbox.max-pending=1",
+        "springtx.log.outbox.max-wait=5s"
+})
+class LogOutboxBackPressureTest {
+
+    @Autowired MemberService memberService;
+    @Autowired MemberRepository memberRepository;
+    @Autowired LogOutbox logOutbox;
+
+
+    @Test
+    void failFastInsideTransaction() {
+        // given: 미처리 1건 (max-pending 도달)
+        logOutbox.drain();
+        memberService.joinV1("outbox_backpressure_1");
+
+        // When: 트랜잭션 안에서 append -> 바로 실패, joinV1 롤백
+        long start = System.nanoTime();
+        assertThatThrownBy(() -> memberService.joinV1("outbox_backpressure_2"))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("backlog full");
+        long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+        log.info("fail fast {}ms", elapsedMs);
+
+        // Then: max-wait(5s) 대기 없음
+        assertThat(elapsedMs).isLessThan(1000);
+        assertThat(memberRepository.find("outbox_backpressure_2")).isEmpty();
+
+        // When: 트랜잭션 시작 전 배압 확인 (drain 으로 여유 생김) 후 다시 가입
+        logOutbox.drain();
+        logOutbox.awaitCapacity();
+        memberService.joinV1("outbox_backpressure_2");
+
+        // Then
+        assertThat(memberRepository.find("outbox_backpressure_2")).isPresent();
+    }
+}
@@ -0,0 +1,95 @@
+package hello.springtx.propagation;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.persistence.EntityManager;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.*;
+
+@SpringBootTest
+class MemberCacheTest {
+
+    @Autowired MemberService memberService;
+    @Autowired MemberRepository memberRepository;
+    @Autowired MemberCache memberCache;
+    @Autowired PlatformTransactionManager txManager;
+    @Autowired EntityManager em;
+
+
+    @Test
+    void cachedAfterCommit() {
+        // given
+        String username = "cache_commit";
+
+        // When
+        memberService.joinV1(username);
+        long hits = memberCache.stats().getHits();
+
+        // Then: 커밋 후 캐시에 반영, DB 조회 없이 반환
+        assertThat(memberRepository.find(username)).isPresent();
+        assertThat(memberCache.stats().getHits()).isEqualTo(hits + 1);
+    }
+
+
+    @Test
+    void cachedMemberIsManagedInTransaction() {
+        // given
+        String username = "cache_managed";
+        memberService.joinV1(username);
+
+        // When: 캐시 히트여도 트랜잭션 안에서는 현재 영속성 컨텍스트의 엔티티
+        Member member = new TransactionTemplate(txManager).execute(status -> {
+            Member found = memberRepository.find(username).orElseThrow();
+            assertThat(em.contains(found)).isTrue();
+            return found;
+        });
+
+        // Then: 트랜잭션 밖에서는 호출마다 새 준영속 인스턴스
+        Member detached = memberRepository.find(username).orElseThrow();
+        assertThat(detached.getId()).isEqualTo(member.getId());
+        assertThat(detached).isNotSameAs(memberRepository.find(username).orElseThrow());
+        assertThat(memberCache.get(username)).isInstanceOf(MemberView.class);
+    }
+
+
+    @Test
+    void notCachedOnRollback() {
+        // given
+        String username = "로그예외_cache_rollback";
+
+        // When: joinV1 전체 Rollback
+        assertThatThrownBy(() -> memberService.joinV1(username))
+                .isInstanceOf(RuntimeException.class);
+
+        // Then: 롤백된 회원은 캐시에 없음
+        assertThat(memberCache.get(username)).isNull();
+        assertThat(memberRepository.find(username)).isEmpty();
+    }
+
+
+    @Test
+    void evictBySizeAndTtl() throws InterruptedException {
+        // Given
+        MemberCache cache = new MemberCache(2, Duration.ofMillis(50));
+
+        // When
+        cache.putAfterCommit(new Member("A"));
+        cache.putAfterCommit(new Member("B"));
+        cache.putAfterCommit(new Member("C"));
+
+        // Then: 크기 초과 -> 가장 오래된 A 제거
+        assertThat(cache.get("A")).isNull();
+        assertThat(cache.get("C")).isNotNull();
+
+        // Then: TTL 만료
+        Thread.sleep(100);
+        assertThat(cache.get("C")).isNull();
+        assertThat(cache.stats().getEvictions()).isEqualTo(2);
+    }
+}
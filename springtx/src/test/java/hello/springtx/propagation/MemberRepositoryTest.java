@@ -0,0 +1,49 @@
+package hello.springtx.propagation;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.*;
+
+@SpringBootTest
+class MemberRepositoryTest {
+
+    @Autowired MemberService memberService;
+    @Autowired MemberRepository memberRepository;
+    @Autowired LogRepository logRepository;
+
+
+    @Test
+    void existsAndView() {
+        // given
+        String username = "repository_exists";
+
+        // When
+        memberService.joinV1(username);
+
+        // Then
+        assertThat(memberRepository.exists(username)).isTrue();
+        assertThat(logRepository.exists(username)).isTrue();
+
+        Optional<MemberView> view = memberRepository.findView(username);
+        assertThat(view).isPresent();
+        assertThat(view.get().getId()).isNotNull();
+        assertThat(view.get().getUsername()).isEqualTo(username);
+    }
+
+
+    @Test
+    void notExists() {
+        // given
+        String username = "repository_not_exists";
+
+        // Then
+        assertThat(memberRepository.exists(username)).isFalse();
+        assertThat(memberRepository.findView(username)).isEmpty();
+        assertThat(logRepository.exists(username)).isFalse();
+        assertThat(logRepository.find(username)).isEmpty();
+    }
+}
@@ -0,0 +1,135 @@
+package hello.springtx.propagation;
+
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.BeansException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * springtx.log.mode=NESTED
+ * logRepository 가 외부 트랜잭션 커넥션의 세이브포인트 사용 -> 요청당 커넥션 1개
+ * */
+@Slf4j
+@SpringBootTest(properties = "springtx.log.mode=NESTED")
+class MemberServiceNestedTest {
+
+    @Autowired MemberService memberService;
+    @Autowired MemberRepository memberRepository;
+    @Autowired LogRepository logRepository;
+    @Autowired ConnectionCounter connectionCounter;
+
+
+    /**
+     * memberService        @Transactional : ON
+     * memberRepository     @Transactional : ON
+     * logRepository        @Transactional : ON(NESTED)
+     * */
+    @Test
+    void outerTxOn_success() {
+        // given
+        String username = "nested_outerTxOn_success";
+
+        // When
+        connectionCounter.reset();
+        memberService.joinV1(username);
+        log.info("connections per request={}", connectionCounter.get());
+
+        // When: 모든 데이터가 정상 저장, 커넥션 1개
+        assertThat(connectionCounter.get()).isEqualTo(1);
+        assertTrue(memberRepository.find(username).isPresent());
+        assertTrue(logRepository.find(username).isPresent());
+    }
+
+
+    /**
+     * memberService        @Transactional : ON
+     * memberRepository     @Transactional : ON
+     * logRepository        @Transactional : ON(NESTED) -> Exception
+     * */
+    @Test
+    void outerTxOn_fail() {
+        // given
+        String username = "로그예외_nested_outerTxOn_fail";
+
+        // When
+        assertThatThrownBy(() -> memberService.joinV1(username))
+                .isInstanceOf(RuntimeException.class);
+
+        // When: 모든 데이터가 정상 Rollback.
+        assertTrue(memberRepository.find(username).isEmpty());
+        assertTrue(logRepository.find(username).isEmpty());
+    }
+
+
+    /**
+     * memberService        @Transactional : ON
+     * memberRepository     @Transactional : ON
+     * logRepository        @Transactional : ON(NESTED) -> Exception
+     * */
+    @Test
+    void recoverException_success() {
+        // given
+        String username = "로그예외_nested_recoverException_success";
+
+        // When
+        connectionCounter.reset();
+        memberService.joinV2(username);
+        log.info("connections per request={}", connectionCounter.get());
+
+        // When: member Commit, log 세이브포인트까지 Rollback, 커넥션 1개
+        assertThat(connectionCounter.get()).isEqualTo(1);
+        assertTrue(memberRepository.find(username).isPresent());
+        assertTrue(logRepository.find(username).isEmpty());
+    }
+
+
+    @TestConfiguration
+    static class NestedTestConfig {
+        @Bean
+        static ConnectionCounter connectionCounter() {
+            return new ConnectionCounter();
+        }
+    }
+
+
+    // DataSource.getConnection() 호출 횟수
+    static class ConnectionCounter implements BeanPostProcessor {
+
+        private final AtomicInteger count = new AtomicInteger();
+
+        @Override
+        public Object postProcessAfterInitialization(Object bean, String beanName) throws BeansException {
+            if (!(bean instanceof DataSource)) {
+                return bean;
+            }
+            return new DelegatingDataSource((DataSource) bean) {
+                @Override
+                public Connection getConnection() throws SQLException {
+                    count.incrementAndGet();
+                    return super.getConnection();
+                }
+            };
+        }
+
+        int get() {
+            return count.get();
+        }
+
+        void reset() {
+            count.set(0);
+        }
+    }
+}
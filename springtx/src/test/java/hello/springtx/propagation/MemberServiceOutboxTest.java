@@ -0,0 +1,75 @@
+package hello.springtx.propagation;
+
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * springtx.log.mode=OUTBOX
+ * 로그는 호출자 트랜잭션에서 아웃박스에 저장, drain() 시점에 Log 로 이동
+ * */
+@Slf4j
+@SpringBootTest(properties = {
+        "springtx.log.mode=OUTBOX",
+        "springtx.log.outbox.flush-interval=1h"
+})
+class MemberServiceOutboxTest {
+
+    @Autowired MemberService memberService;
+    @Autowired MemberRepository memberRepository;
+    @Autowired LogRepository logRepository;
+    @Autowired LogOutbox logOutbox;
+
+
+    @Test
+    void outerTxOn_success() {
+        // given
+        String username = "outbox_outerTxOn_success";
+
+        // When
+        memberService.joinV1(username);
+
+        // When: member 저장, log 는 drain 이후 저장
+        assertTrue(memberRepository.find(username).isPresent());
+        assertTrue(logRepository.find(username).isEmpty());
+
+        assertThat(logOutbox.drain()).isGreaterThanOrEqualTo(1);
+        log.info("outbox={}", logOutbox.snapshot());
+        assertTrue(logRepository.find(username).isPresent());
+    }
+
+
+    @Test
+    void outerTxOn_fail() {
+        // given
+        String username = "로그예외_outbox_outerTxOn_fail";
+
+        // When
+        assertThatThrownBy(() -> memberService.joinV1(username))
+                .isInstanceOf(RuntimeException.class);
+        logOutbox.drain();
+
+        // When: 모든 데이터가 정상 Rollback.
+        assertTrue(memberRepository.find(username).isEmpty());
+        assertTrue(logRepository.find(username).isEmpty());
+    }
+
+
+    @Test
+    void recoverException_success() {
+        // given
+        String username = "로그예외_outbox_recoverException_success";
+
+        // When
+        memberService.joinV2(username);
+        logOutbox.drain();
+
+        // When: member Commit, log 저장 X
+        assertTrue(memberRepository.find(username).isPresent());
+        assertTrue(logRepository.find(username).isEmpty());
+    }
+}
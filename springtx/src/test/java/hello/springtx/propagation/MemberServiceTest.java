@@ -7,6 +7,9 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.transaction.UnexpectedRollbackException;
 
+import javax.persistence.EntityManager;
+import java.util.List;
+
 import static org.assertj.core.api.Assertions.*;
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -17,6 +20,7 @@ class MemberServiceTest {
     @Autowired MemberService memberService;
     @Autowired MemberRepository memberRepository;
     @Autowired LogRepository logRepository;
+    @Autowired EntityManager em;
 
 
     /**
@@ -65,7 +69,7 @@ class MemberServiceTest {
     @Test
     void singleTx() {
         // given
-        String username = "outerTxOff_success";
+        String username = "singleTx";
 
         // When
         memberService.joinV1(username);
@@ -152,4 +156,33 @@ class MemberServiceTest {
         assertTrue(memberRepository.find(username).isPresent());
         assertTrue(logRepository.find(username).isEmpty());
     }
-}
\ No newline at end of file
+
+
+    /**
+     * memberService        @Transactional : ON  (joinAll)
+     * memberRepository     @Transactional : ON  (JDBC Batch)
+     * logRepository        @Transactional : ON(REQUIRES_NEW) -> 로그예외 1건 제외
+     * */
+    @Test
+    void joinAll() {
+        // given
+        List<String> usernames = List.of("joinAll_1", "joinAll_2", "로그예외_joinAll");
+
+        // When
+        memberService.joinAll(usernames);
+
+        // When: member 모두 Commit, 실패한 log 만 제외
+        assertTrue(memberRepository.find("joinAll_1").isPresent());
+        assertTrue(memberRepository.find("joinAll_2").isPresent());
+        assertTrue(memberRepository.find("로그예외_joinAll").isPresent());
+        assertThat(countLog("joinAll_1")).isEqualTo(1);
+        assertThat(countLog("joinAll_2")).isEqualTo(1);
+        assertThat(countLog("로그예외_joinAll")).isZero();
+    }
+
+    private long countLog(String message) {
+        return em.createQuery("SELECT COUNT(l) FROM Log l WHERE l.message = :message", Long.class)
+                .setParameter("message", message)
+                .getSingleResult();
+    }
+}
@@ -0,0 +1,81 @@
+package hello.springtx.propagation;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import static org.assertj.core.api.Assertions.*;
+
+@SpringBootTest
+class UsernameBloomFilterTest {
+
+    @Autowired MemberService memberService;
+    @Autowired MemberRepository memberRepository;
+    @Autowired UsernameBloomFilter bloomFilter;
+
+
+    @Test
+    void existsAfterCommit() {
+        // given
+        String username = "bloom_commit";
+        assertThat(bloomFilter.isReady()).isTrue();
+        assertThat(memberRepository.exists(username)).isFalse();
+
+        // When
+        memberService.joinV1(username);
+
+        // Then
+        assertThat(bloomFilter.mightContain(username)).isTrue();
+        assertThat(memberRepository.exists(username)).isTrue();
+    }
+
+
+    @Test
+    void notAddedOnRollback() {
+        // given
+        String username = "로그예외_bloom_rollback";
+
+        // When: joinV1 전체 Rollback
+        assertThatThrownBy(() -> memberService.joinV1(username))
+                .isInstanceOf(RuntimeException.class);
+
+        // Then
+        assertThat(memberRepository.exists(username)).isFalse();
+    }
+
+
+    @Test
+    void uniqueUsername() {
+        // given
+        String username = "bloom_unique";
+        memberService.joinV1(username);
+
+        // When: 같은 username 가입 -> 유니크 제약 조건 위반
+        assertThatThrownBy(() -> memberService.joinV1(username))
+                .isInstanceOf(DataIntegrityViolationException.class);
+    }
+
+
+    @Test
+    void falsePositiveRate() {
+        // Given
+        UsernameBloomFilter filter = new UsernameBloomFilter(10_000, 0.01);
+        for (int i = 0; i < 10_000; i++) {
+            filter.put("member" + i);
+        }
+        filter.markReady();
+
+        // When
+        int falsePositives = 0;
+        for (int i = 0; i < 10_000; i++) {
+            assertThat(filter.mightContain("member" + i)).isTrue();
+            if (filter.mightContain("absent" + i)) {
+                falsePositives++;
+            }
+        }
+
+        // Then: 오탐률 1% 근처
+        assertThat(falsePositives).isLessThan(300);
+    }
+}
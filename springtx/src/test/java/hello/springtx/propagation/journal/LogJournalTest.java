@@ -0,0 +1,88 @@
+package hello.springtx.propagation.journal;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+
+class LogJournalTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void appendAndRead() throws IOException {
+        // Given
+        LogJournal journal = new LogJournal(directory, 1024, FsyncPolicy.NONE);
+
+        // When
+        journal.append("회원1");
+        journal.append("회원2");
+        journal.rotateIfNotEmpty();
+
+        // Then
+        List<Path> segments = journal.closedSegments();
+        assertThat(segments).hasSize(1);
+        assertThat(LogJournal.readRecords(segments.get(0))).containsExactly("회원1", "회원2");
+        journal.close();
+    }
+
+    @Test
+    void rotateWhenSegmentIsFull() throws IOException {
+        // Given : 레코드 1개 = 8 + 10 bytes
+        LogJournal journal = new LogJournal(directory, 40, FsyncPolicy.NONE);
+
+        // When
+        for (int i = 0; i < 5; i++) {
+            journal.append("message-0" + i);
+        }
+
+        // Then : 세그먼트당 2개
+        List<Path> segments = journal.closedSegments();
+        assertThat(segments).hasSize(2);
+        assertThat(LogJournal.readRecords(segments.get(0))).containsExactly("message-00", "message-01");
+        assertThat(LogJournal.readRecords(segments.get(1))).containsExactly("message-02", "message-03");
+        journal.close();
+    }
+
+    /**
+     * 비정상 종료 : 마지막 레코드 일부만 기록된 상태
+     * 재시작 시 유효한 레코드까지만 읽고, 새 세그먼트에서 이어서 기록
+     * */
+    @Test
+    void recoverPartiallyWrittenSegment() throws IOException {
+        // Given
+        LogJournal journal = new LogJournal(directory, 1024, FsyncPolicy.ALWAYS);
+        journal.append("정상1");
+        journal.append("정상2");
+        journal.close();
+
+        Path segment = directory.resolve(String.format("segment-%020d.log", 1));
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.WRITE)) {
+            // 세 번째 레코드 : length, crc 만 쓰고 본문은 쓰지 못함
+            ByteBuffer header = ByteBuffer.allocate(8).putInt(9).putInt(12345);
+            header.flip();
+            channel.write(header, 2 * (8 + "정상1".getBytes(StandardCharsets.UTF_8).length));
+        }
+
+        // When
+        LogJournal recovered = new LogJournal(directory, 1024, FsyncPolicy.NONE);
+        recovered.append("재시작");
+        recovered.rotateIfNotEmpty();
+
+        // Then
+        List<Path> segments = recovered.closedSegments();
+        assertThat(segments).hasSize(2);
+        assertThat(LogJournal.readRecords(segments.get(0))).containsExactly("정상1", "정상2");
+        assertThat(LogJournal.readRecords(segments.get(1))).containsExactly("재시작");
+        recovered.close();
+    }
+}
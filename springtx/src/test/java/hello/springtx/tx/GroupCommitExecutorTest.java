@@ -0,0 +1,204 @@
+package hello.springtx.tx;
+
+import hello.springtx.propagation.Member;
+import hello.springtx.propagation.MemberRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * max-linger 를 길게 잡아서 동시에 제출한 작업이 한 배치로 모이도록 함
+ * */
+@Slf4j
+@SpringBootTest(properties = {
+        "springtx.tx.group-commit.enabled=true",
+        "springtx.tx.group-commit.max-batch-size=10",
+        "springtx.tx.group-commit.max-linger=200ms"
+})
+class GroupCommitExecutorTest {
+
+    @Autowired GroupCommitExecutor executor;
+    @Autowired MemberRepository memberRepository;
+    @Autowired PlatformTransactionManager txManager;
+
+
+    @Test
+    void groupCommit() throws Exception {
+        // given
+        long commits = executor.snapshot().getCommits();
+        List<CompletableFuture<Long>> futures = new ArrayList<>();
+
+        // When: 10건 제출 -> 1 배치
+        for (int i = 0; i < 10; i++) {
+            futures.add(executor.submit(save("group_" + i)));
+        }
+        for (CompletableFuture<Long> future : futures) {
+            assertThat(future.get()).isNotNull();
+        }
+
+        // Then: 모두 저장, 커밋은 1회
+        log.info("group commit={}", executor.snapshot());
+        assertThat(executor.snapshot().getCommits() - commits).isEqualTo(1);
+        for (int i = 0; i < 10; i++) {
+            assertThat(memberRepository.find("group_" + i)).isPresent();
+        }
+    }
+
+
+    @Test
+    void failedItemRollsBackToSavepoint() throws Exception {
+        // When: 가운데 작업만 예외
+        CompletableFuture<Long> first = executor.submit(save("group_savepoint_1"));
+        CompletableFuture<Long> failed = executor.submit(() -> {
+            memberRepository.save(new Member("group_savepoint_fail"));
+            throw new RuntimeException("작업 예외");
+        });
+        CompletableFuture<Long> last = executor.submit(save("group_savepoint_2"));
+
+        // Then: 실패한 작업만 롤백
+        assertThat(first.get()).isNotNull();
+        assertThat(last.get()).isNotNull();
+        assertThatThrownBy(failed::get)
+                .isInstanceOf(ExecutionException.class)
+                .hasRootCauseMessage("작업 예외");
+        assertThat(memberRepository.find("group_savepoint_1")).isPresent();
+        assertThat(memberRepository.find("group_savepoint_2")).isPresent();
+        assertThat(memberRepository.find("group_savepoint_fail")).isEmpty();
+    }
+
+
+    @Test
+    void constraintViolationRetriesOthers() throws Exception {
+        // given
+        executor.execute(save("group_duplicate"));
+        AtomicInteger firstRuns = new AtomicInteger();
+        AtomicInteger duplicateRuns = new AtomicInteger();
+        AtomicInteger lastRuns = new AtomicInteger();
+
+        // When: 유니크 제약 위반 -> JPA 트랜잭션 전체 rollbackOnly -> 나머지 작업 다시 실행
+        CompletableFuture<Long> first = executor.submit(counting(firstRuns, save("group_retry_1")));
+        CompletableFuture<Long> duplicate = executor.submit(counting(duplicateRuns, save("group_duplicate")));
+        CompletableFuture<Long> last = executor.submit(counting(lastRuns, save("group_retry_2")));
+
+        // Then: 앞 작업은 롤백 후 다시 실행, 실패한 작업은 다시 실행하지 않음
+        assertThat(first.get()).isNotNull();
+        assertThat(last.get()).isNotNull();
+        assertThatThrownBy(duplicate::get).hasCauseInstanceOf(DataIntegrityViolationException.class);
+        assertThat(firstRuns).hasValue(2);
+        assertThat(duplicateRuns).hasValue(1);
+        assertThat(lastRuns).hasValue(1);
+        assertThat(memberRepository.find("group_retry_1")).isPresent();
+        assertThat(memberRepository.find("group_retry_2")).isPresent();
+    }
+
+
+    @Test
+    void commitFailureRunsItemsOneByOne() throws Exception {
+        // given
+        long retries = executor.snapshot().getRetries();
+        AtomicInteger firstRuns = new AtomicInteger();
+        AtomicInteger failedRuns = new AtomicInteger();
+        AtomicInteger lastRuns = new AtomicInteger();
+
+        // When: 가운데 작업이 커밋 직전에 실패하는 동기화 등록 -> 배치 커밋 실패
+        CompletableFuture<Long> first = executor.submit(counting(firstRuns, save("group_commit_1")));
+        CompletableFuture<Long> failed = executor.submit(counting(failedRuns, () -> {
+            Long id = save("group_commit_fail").get();
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void beforeCommit(boolean readOnly) {
+                    throw new IllegalStateException("커밋 예외");
+                }
+            });
+            return id;
+        }));
+        CompletableFuture<Long> last = executor.submit(counting(lastRuns, save("group_commit_2")));
+
+        // Then: 모든 작업을 하나씩 다시 실행 -> 커밋에 실패한 작업만 예외
+        assertThat(first.get()).isNotNull();
+        assertThat(last.get()).isNotNull();
+        assertThatThrownBy(failed::get)
+                .isInstanceOf(ExecutionException.class)
+                .hasRootCauseMessage("커밋 예외");
+        assertThat(firstRuns).hasValue(2);
+        assertThat(failedRuns).hasValue(2);
+        assertThat(lastRuns).hasValue(2);
+        assertThat(executor.snapshot().getRetries() - retries).isEqualTo(1);
+        assertThat(memberRepository.find("group_commit_1")).isPresent();
+        assertThat(memberRepository.find("group_commit_2")).isPresent();
+        assertThat(memberRepository.find("group_commit_fail")).isEmpty();
+    }
+
+
+    @Test
+    void stopFailsPendingItems() throws Exception {
+        // given: 배치 1건씩, 첫 작업이 끝나지 않도록 대기
+        GroupCommitExecutor stopping = new GroupCommitExecutor(txManager, 1, Duration.ofMillis(10), 10);
+        stopping.start();
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger pendingRuns = new AtomicInteger();
+        CompletableFuture<Long> running = stopping.submit(() -> {
+            await(release);
+            return save("group_stop_running").get();
+        });
+        CompletableFuture<Long> pending = stopping.submit(counting(pendingRuns, save("group_stop_pending")));
+
+        // When: stop() 중에 실행 중인 작업을 끝냄
+        CompletableFuture<Void> stopped = CompletableFuture.runAsync(stopping::stop);
+        while (stopping.isRunning()) {
+            Thread.sleep(10);
+        }
+        release.countDown();
+        stopped.get(15, TimeUnit.SECONDS);
+
+        // Then: 실행 중이던 작업은 커밋, 큐에 남은 작업은 실행하지 않고 예외로 완료
+        assertThat(running.get()).isNotNull();
+        assertThatThrownBy(pending::get).hasCauseInstanceOf(IllegalStateException.class);
+        assertThat(pendingRuns).hasValue(0);
+        assertThatThrownBy(() -> stopping.submit(save("group_stop_after")))
+                .isInstanceOf(IllegalStateException.class);
+    }
+
+
+    private Supplier<Long> save(String username) {
+        return () -> {
+            Member member = new Member(username);
+            memberRepository.save(member);
+            return member.getId();
+        };
+    }
+
+
+    private static <T> Supplier<T> counting(AtomicInteger runs, Supplier<T> work) {
+        return () -> {
+            runs.incrementAndGet();
+            return work.get();
+        };
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,178 @@
+package hello.springtx.tx;
+
+import hello.springtx.order.Order;
+import hello.springtx.order.OrderRepository;
+import hello.springtx.order.OrderResult;
+import hello.springtx.order.OrderService;
+import hello.springtx.order.PayStatus;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.transaction.Transactional;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * 같은 주문을 여러 스레드가 동시에 변경 -> @Version 충돌 -> 트랜잭션 전체 재시도
+ * 모든 변경이 반영되면 version = 성공한 변경 횟수 (유실된 변경 없음)
+ */
+@Slf4j
+@SpringBootTest
+class RetryOnConflictTest {
+
+    static final int THREADS = 16;
+    static final int ORDERS = 4;
+    static final int UPDATES = 400;
+
+    @Autowired ToggleService toggleService;
+    @Autowired ConflictService conflictService;
+    @Autowired OrderService orderService;
+    @Autowired OrderRepository orderRepository;
+    @Autowired RetryOnConflictAspect retryAspect;
+    @Autowired PlatformTransactionManager txManager;
+
+    @Test
+    void contention() throws Exception {
+        // given
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < ORDERS; i++) {
+            ids.add(orderRepository.save(newOrder("정상", PayStatus.WAIT)).getId());
+        }
+        long retriesBefore = retryAspect.snapshot().getRetries();
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        List<Future<?>> futures = new ArrayList<>();
+
+        // When
+        long start = System.nanoTime();
+        for (int i = 0; i < UPDATES; i++) {
+            Long id = ids.get(i % ORDERS);
+            futures.add(executor.submit(() -> toggleService.toggle(id)));
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        long elapsedNanos = System.nanoTime() - start;
+        executor.shutdown();
+
+        long retries = retryAspect.snapshot().getRetries() - retriesBefore;
+        log.info("{} updates on {} orders, {} threads, {}ms, {} updates/s, retries={}",
+                UPDATES, ORDERS, THREADS, elapsedNanos / 1_000_000,
+                (long) (UPDATES * 1_000_000_000.0 / elapsedNanos), retries);
+
+        // Then: 변경 유실 없음 (최초 저장 version 0 + 변경마다 1 증가)
+        long versions = ids.stream()
+                .mapToLong(id -> orderRepository.findById(id).get().getVersion())
+                .sum();
+        assertThat(versions).isEqualTo(UPDATES);
+        assertThat(retryAspect.snapshot().getExhausted()).isZero();
+    }
+
+    @Test
+    void concurrentRetryPayment() throws Exception {
+        // given
+        Long id = orderRepository.save(newOrder("정상", PayStatus.WAIT)).getId();
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        List<Future<OrderResult>> futures = new ArrayList<>();
+
+        // When: 같은 대기 주문에 결제 재시도 동시 호출
+        for (int i = 0; i < THREADS; i++) {
+            futures.add(executor.submit(() -> orderService.retryPayment(id)));
+        }
+
+        // Then: 한 번만 완료로 변경, 나머지는 충돌 후 재시도에서 완료 상태 확인
+        for (Future<OrderResult> future : futures) {
+            assertThat(future.get()).isEqualTo(OrderResult.COMPLETE);
+        }
+        executor.shutdown();
+        Order order = orderRepository.findById(id).get();
+        assertThat(order.getPayStatus()).isEqualTo(PayStatus.COMPLETE);
+        assertThat(order.getVersion()).isEqualTo(1);
+    }
+
+    @Test
+    void retryUntilMaxAttempts() {
+        // given
+        conflictService.calls.set(0);
+
+        // When
+        assertThatThrownBy(() -> conflictService.alwaysConflict())
+                .isInstanceOf(ObjectOptimisticLockingFailureException.class);
+
+        // Then
+        assertThat(conflictService.calls.get()).isEqualTo(3);
+    }
+
+    @Test
+    void noRetryInsideOuterTransaction() {
+        // given
+        conflictService.calls.set(0);
+
+        // When: 외부 트랜잭션에 참여 -> 재시도는 외부 트랜잭션의 몫
+        assertThatThrownBy(() -> new TransactionTemplate(txManager).executeWithoutResult(status -> conflictService.alwaysConflict()))
+                .isInstanceOf(ObjectOptimisticLockingFailureException.class);
+
+        // Then
+        assertThat(conflictService.calls.get()).isEqualTo(1);
+    }
+
+    private Order newOrder(String username, PayStatus payStatus) {
+        Order order = new Order();
+        order.setUsername(username);
+        order.setPayStatus(payStatus);
+        return order;
+    }
+
+    @TestConfiguration
+    static class RetryOnConflictTestConfig {
+
+        @Bean
+        ToggleService toggleService(OrderRepository orderRepository) {
+            return new ToggleService(orderRepository);
+        }
+
+        @Bean
+        ConflictService conflictService() {
+            return new ConflictService();
+        }
+    }
+
+    @RequiredArgsConstructor
+    static class ToggleService {
+
+        private final OrderRepository orderRepository;
+
+        // 항상 상태를 바꾸는 변경 (version 항상 증가)
+        @RetryOnConflict(maxAttempts = 100, backoffMillis = 1, maxBackoffMillis = 20)
+        @Transactional
+        public void toggle(Long id) {
+            Order order = orderRepository.findById(id).get();
+            order.setPayStatus(order.getPayStatus() == PayStatus.WAIT ? PayStatus.COMPLETE : PayStatus.WAIT);
+        }
+    }
+
+    static class ConflictService {
+
+        final AtomicInteger calls = new AtomicInteger();
+
+        @RetryOnConflict(maxAttempts = 3, backoffMillis = 1)
+        @Transactional
+        public void alwaysConflict() {
+            calls.incrementAndGet();
+            throw new ObjectOptimisticLockingFailureException(Order.class, 1L);
+        }
+    }
+}